@@ -0,0 +1,67 @@
+package com.clevercloud.testcontainers.warp10.benchmarks;
+
+import com.clevercloud.testcontainers.warp10.Warp10Client;
+import com.clevercloud.testcontainers.warp10.Warp10Container;
+import com.clevercloud.testcontainers.warp10.Warp10GTS;
+import com.clevercloud.testcontainers.warp10.Warp10SeriesReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of /api/v0/exec calling the macros of the library tests, response parsing included.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ExecBenchmark {
+    @Param({"@me/test", "@me/testlimit"})
+    public String macro;
+
+    private Warp10Container container;
+    private Warp10Client client;
+    private String script;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        container = Warp10Benchmarks.newContainerWithMacros();
+        container.start();
+        client = container.client();
+
+        StringBuilder lines = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            lines.append(i).append("// test{} ").append(i).append('\n');
+        }
+        client.update(lines.toString());
+        script = "[ '" + container.getReadToken() + "' 'test' {} 0 NOW 10 ] " + macro;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        container.stop();
+    }
+
+    @Benchmark
+    public List<Warp10GTS> exec() throws IOException {
+        try (Warp10SeriesReader reader = client.exec(script)) {
+            return reader.readAll();
+        }
+    }
+}
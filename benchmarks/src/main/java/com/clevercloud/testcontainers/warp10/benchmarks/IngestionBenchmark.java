@@ -0,0 +1,76 @@
+package com.clevercloud.testcontainers.warp10.benchmarks;
+
+import com.clevercloud.testcontainers.warp10.Warp10Client;
+import com.clevercloud.testcontainers.warp10.Warp10Container;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update requests against /api/v0/update, one batch of points per request. The primary result is in requests per
+ * second, the points secondary result in points per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class IngestionBenchmark {
+    @Param({"1", "100", "10000"})
+    public int batchSize;
+
+    private Warp10Container container;
+    private Warp10Client client;
+    private String batch;
+
+    @Setup(Level.Trial)
+    public void start() {
+        container = Warp10Benchmarks.newContainer();
+        container.start();
+        client = container.client();
+
+        // Built once, only the request is measured. Points are spread over 100 series
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < batchSize; i++) {
+            lines.append(i).append("// benchmark{series=").append(i % 100).append("} ").append(i * 0.5).append('\n');
+        }
+        batch = lines.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        container.stop();
+    }
+
+    @Benchmark
+    public void update(Points points) throws IOException {
+        client.update(batch);
+        points.points += batchSize;
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Points {
+        public long points;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            points = 0;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.clevercloud.testcontainers.warp10.benchmarks;
+
+import com.clevercloud.testcontainers.warp10.Warp10Container;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get back an empty Warp10 between two tests: reset() of a started container against the start of a new one,
+ * with the same storage. Both are measured in the same JVM, after warm starts.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@State(Scope.Thread)
+public class ResetBenchmark {
+    @Param({"leveldb", "in-memory"})
+    public String storage;
+
+    @Benchmark
+    public Duration reset(Resettable resettable) {
+        return resettable.container.reset();
+    }
+
+    @Benchmark
+    public Warp10Container freshStart(Fresh fresh) {
+        fresh.container = newContainer(storage);
+        fresh.container.start();
+        return fresh.container;
+    }
+
+    private static Warp10Container newContainer(String storage) {
+        Warp10Container container = Warp10Benchmarks.newContainer();
+        if ("in-memory".equals(storage)) {
+            container.withInMemoryStorage();
+        }
+        return container;
+    }
+
+    /**
+     * A resettable container started once, reset by each measurement.
+     */
+    @State(Scope.Thread)
+    public static class Resettable {
+        private Warp10Container container;
+
+        @Setup(Level.Trial)
+        public void start(ResetBenchmark benchmark) {
+            container = newContainer(benchmark.storage).withResettableData();
+            container.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            container.stop();
+        }
+    }
+
+    /**
+     * The container started by a measurement, stopped after it.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+        private Warp10Container container;
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (container != null) {
+                container.stop();
+                container = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.clevercloud.testcontainers.warp10.benchmarks;
+
+import com.clevercloud.testcontainers.warp10.Warp10Container;
+import com.clevercloud.testcontainers.warp10.Warp10StartupReport;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for start() to return, the container being stopped after each measurement.
+ * <p>
+ * A cold start is the first one of a JVM (docker client, image cache and tokengen script not initialized yet), a warm
+ * start follows other starts in the same JVM. The image must be pulled beforehand, pulls are not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class StartupBenchmark {
+    @Param({"tokengen", "in-jvm"})
+    public String tokenGeneration;
+
+    private Warp10Container container;
+
+    @Benchmark
+    @Fork(5)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Warp10Container coldStart(Phases phases) {
+        return start(phases);
+    }
+
+    @Benchmark
+    @Fork(1)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public Warp10Container warmStart(Phases phases) {
+        return start(phases);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (container != null) {
+            container.stop();
+            container = null;
+        }
+    }
+
+    private Warp10Container start(Phases phases) {
+        container = Warp10Benchmarks.newContainer();
+        if ("tokengen".equals(tokenGeneration)) {
+            container.withTokenGen();
+        }
+        container.start();
+        phases.record(container.getStartupReport());
+        return container;
+    }
+
+    /**
+     * Mean time of each startup phase, reported as secondary results in milliseconds.
+     * <p>
+     * JMH sums event counters over all the measured iterations of all forks, so each start adds its phases divided by
+     * the number of measured starts.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Phases {
+        public double imageMs;
+        public double createMs;
+        public double startMs;
+        public double waitMs;
+        public double cryptoKeysMs;
+        public double tokenGenerationMs;
+
+        private long starts;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkParams params) {
+            starts = (long) params.getForks() * params.getMeasurement().getCount();
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            imageMs = 0;
+            createMs = 0;
+            startMs = 0;
+            waitMs = 0;
+            cryptoKeysMs = 0;
+            tokenGenerationMs = 0;
+        }
+
+        void record(Warp10StartupReport report) {
+            imageMs = mean(report, Warp10StartupReport.Phase.IMAGE);
+            createMs = mean(report, Warp10StartupReport.Phase.CREATE);
+            startMs = mean(report, Warp10StartupReport.Phase.START);
+            waitMs = mean(report, Warp10StartupReport.Phase.WAIT);
+            cryptoKeysMs = mean(report, Warp10StartupReport.Phase.CRYPTO_KEYS);
+            tokenGenerationMs = mean(report, Warp10StartupReport.Phase.TOKEN_GENERATION);
+        }
+
+        private double mean(Warp10StartupReport report, Warp10StartupReport.Phase phase) {
+            Duration duration = report.getPhase(phase);
+            return duration == null ? 0.0 : duration.toNanos() / 1e6 / starts;
+        }
+    }
+}
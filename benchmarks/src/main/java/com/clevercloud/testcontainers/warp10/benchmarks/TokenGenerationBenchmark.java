@@ -0,0 +1,56 @@
+package com.clevercloud.testcontainers.warp10.benchmarks;
+
+import com.clevercloud.testcontainers.warp10.Warp10Container;
+import com.clevercloud.testcontainers.warp10.Warp10TokenSpec;
+import com.clevercloud.testcontainers.warp10.Warp10Tokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a read and write token pair, generated by the tokengen script in the container or minted in the JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TokenGenerationBenchmark {
+    private static final List<Warp10TokenSpec> SPECS = List.of(Warp10TokenSpec.read(), Warp10TokenSpec.write());
+
+    private Warp10Container container;
+
+    @Setup(Level.Trial)
+    public void start() {
+        container = Warp10Benchmarks.newContainer().withTokenGen();
+        container.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        container.stop();
+    }
+
+    @Benchmark
+    public Warp10Tokens tokengen() throws Exception {
+        return container.generateTokens(SPECS);
+    }
+
+    @Benchmark
+    public String inJvm() {
+        return container.mintToken(SPECS.get(0)) + container.mintToken(SPECS.get(1));
+    }
+}
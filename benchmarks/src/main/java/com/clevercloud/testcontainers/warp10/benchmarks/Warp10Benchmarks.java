@@ -0,0 +1,29 @@
+package com.clevercloud.testcontainers.warp10.benchmarks;
+
+import com.clevercloud.testcontainers.warp10.Warp10Container;
+
+import java.io.File;
+
+/**
+ * Settings shared by the benchmarks, overridable with system properties given to JMH (-jvmArgs).
+ */
+final class Warp10Benchmarks {
+    // Image tag, to be pulled before running the benchmarks
+    static final String TAG = System.getProperty("warp10.tag", "3.4.1-ubuntu-ci");
+    // Macros of the library tests, relative to the benchmarks directory
+    static final File MACROS = new File(System.getProperty("warp10.macros", "../src/test/resources/macros"));
+
+    private Warp10Benchmarks() {
+    }
+
+    static Warp10Container newContainer() {
+        return new Warp10Container(TAG);
+    }
+
+    static Warp10Container newContainerWithMacros() {
+        if (!MACROS.isDirectory()) {
+            throw new IllegalStateException("Macros folder " + MACROS.getAbsolutePath() + " not found, set -Dwarp10.macros");
+        }
+        return new Warp10Container(TAG, MACROS);
+    }
+}
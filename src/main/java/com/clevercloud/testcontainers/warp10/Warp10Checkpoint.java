@@ -0,0 +1,227 @@
+package com.clevercloud.testcontainers.warp10;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.exception.NotFoundException;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.images.builder.Transferable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * A local image committed from a started Warp10 container, see {@link Warp10Container#checkpoint(String)}.
+ * <p>
+ * The Warp10 data directory, holding LevelDB, is a docker volume, which a commit doesn't include. It is archived into
+ * the container filesystem while Warp10 is stopped, and restored into the new volume by a wrapper of the image
+ * entrypoint. The owner and application of the default tokens, the data directory and the original entrypoint are
+ * stored as image labels, the tokens being minted again from them on every start so that they don't expire.
+ * <p>
+ * The crypto keys are written in a file of the committed filesystem rather than in a label, which anyone allowed to
+ * list the images can read with {@code docker inspect}. Whoever can run the image can still read them, so a checkpoint
+ * must not be pushed anywhere its keys would matter.
+ */
+final class Warp10Checkpoint {
+    static final String REPOSITORY = "testcontainers-warp10-checkpoint";
+
+    private static final String LABEL_PREFIX = "com.clever-cloud.testcontainers-warp10.checkpoint.";
+    private static final String OWNER_LABEL = LABEL_PREFIX + "owner";
+    private static final String APPLICATION_LABEL = LABEL_PREFIX + "application";
+    private static final String COMMAND_LABEL = LABEL_PREFIX + "command";
+    private static final String DATA_LABEL = LABEL_PREFIX + "data";
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_][A-Za-z0-9_.-]{0,127}");
+    private static final String ARCHIVE_PATH = "/warp10-checkpoint/data.tar";
+    private static final String CRYPTO_KEYS_PATH = "/warp10-checkpoint/crypto-keys.json";
+    private static final String RESTORED_MARKER = ".checkpoint-restored";
+    // The data directory holds LevelDB and the configuration generated at first boot
+    private static final String DATA_PATH_SCRIPT = "set -e; leveldb=" + Warp10Supervisor.LEVELDB_PATH + ";"
+        + " [ -f \"$leveldb/CURRENT\" ] || { echo \"No LevelDB data in $leveldb\" >&2; exit 1; };"
+        + " dirname \"$leveldb\"";
+    // Run while Warp10 is stopped, the data directory is given as argument
+    private static final String ARCHIVE_SCRIPT = "set -e; mkdir -p $(dirname " + ARCHIVE_PATH + ");"
+        + " tar -C \"$1\" --exclude=./" + RESTORED_MARKER + " -cf " + ARCHIVE_PATH + " .;"
+        + " tar -tf " + ARCHIVE_PATH + " | grep -q '/CURRENT$' || { echo \"No LevelDB data archived from $1\" >&2; exit 1; }";
+    // Restores the archive into the fresh data volume, then runs the original entrypoint given after the data directory
+    private static final String RESTORE_SCRIPT = "data=$1; shift;"
+        + " if [ ! -e \"$data/" + RESTORED_MARKER + "\" ]; then"
+        + " mkdir -p \"$data\" && tar -C \"$data\" -xf " + ARCHIVE_PATH + " && touch \"$data/" + RESTORED_MARKER + "\" || exit 1;"
+        + " fi; exec \"$@\"";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final UUID ownerAndProducer;
+    private final String application;
+    private final String dataPath;
+    private final List<String> command;
+
+    private Warp10Checkpoint(UUID ownerAndProducer, String application, String dataPath, List<String> command) {
+        this.ownerAndProducer = ownerAndProducer;
+        this.application = application;
+        this.dataPath = dataPath;
+        this.command = command;
+    }
+
+    static String imageName(final String name) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid checkpoint name: " + name);
+        }
+        return REPOSITORY + ":" + name;
+    }
+
+    static boolean exists(final String name) {
+        try {
+            DockerClientFactory.instance().client().inspectImageCmd(imageName(name)).exec();
+            return true;
+        } catch (NotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Archives the data of a started container and commits it. Warp10 is stopped while its data is archived.
+     *
+     * @param container the started container.
+     * @param name      name of the checkpoint, used as the image tag.
+     * @param restored  checkpoint the container was started from, if any, to keep its original entrypoint.
+     * @return the name of the committed image
+     */
+    static String create(final Warp10Container container, final String name, final Warp10Checkpoint restored) throws Exception {
+        String imageName = imageName(name);
+        Warp10CryptoKeys cryptoKeys = container.getCryptoKeys();
+        if (container.getTokens() == null || cryptoKeys == null) {
+            throw new IllegalStateException("Warp10 container is not started");
+        }
+
+        ExecResult data = container.execInContainer("sh", "-c", DATA_PATH_SCRIPT);
+        String dataPath = data.getStdout().trim();
+        if (data.getExitCode() != 0 || dataPath.isEmpty()) {
+            throw new RuntimeException("Failed to find the Warp10 data directory: " + data.getStderr());
+        }
+        container.execWhileStopped("archive the Warp10 data", "sh", "-c", ARCHIVE_SCRIPT, "sh", dataPath);
+
+        List<String> command = restored != null ? restored.command : command(container.getContainerInfo());
+        Map<String, String> keys = new LinkedHashMap<>();
+        keys.put("aesTokenKey", cryptoKeys.getAesTokenKey());
+        keys.put("sipHashApp", cryptoKeys.getSipHashApp());
+        keys.put("sipHashToken", cryptoKeys.getSipHashToken());
+
+        container.copyFileToContainer(Transferable.of(MAPPER.writeValueAsBytes(keys), 0600), CRYPTO_KEYS_PATH);
+
+        Map<String, String> labels = new LinkedHashMap<>();
+        labels.put(OWNER_LABEL, container.getOwnerAndProducer().toString());
+        labels.put(APPLICATION_LABEL, container.getTokenApplication());
+        labels.put(COMMAND_LABEL, MAPPER.writeValueAsString(command));
+        labels.put(DATA_LABEL, dataPath);
+
+        DockerClient client = DockerClientFactory.instance().client();
+        client.commitCmd(container.getContainerId())
+            .withRepository(REPOSITORY)
+            .withTag(name)
+            .withLabels(labels)
+            .withPause(true)
+            .exec();
+        return imageName;
+    }
+
+    private static List<String> command(final InspectContainerResponse containerInfo) {
+        List<String> command = new ArrayList<>();
+        // The reset supervisor is added again by the containers restored with resettable data
+        if (containerInfo.getConfig().getEntrypoint() != null && !Warp10Supervisor.isSupervisor(containerInfo.getConfig().getEntrypoint())) {
+            command.addAll(Arrays.asList(containerInfo.getConfig().getEntrypoint()));
+        }
+        if (containerInfo.getConfig().getCmd() != null) {
+            command.addAll(Arrays.asList(containerInfo.getConfig().getCmd()));
+        }
+        return command;
+    }
+
+    /**
+     * Reads the labels of a checkpoint image.
+     *
+     * @param imageName the name of the committed image.
+     * @return the checkpoint
+     */
+    static Warp10Checkpoint load(final String imageName) {
+        InspectImageResponse image;
+        try {
+            image = DockerClientFactory.instance().client().inspectImageCmd(imageName).exec();
+        } catch (NotFoundException e) {
+            throw new IllegalArgumentException("Checkpoint image " + imageName + " does not exist", e);
+        }
+        Map<String, String> labels = image.getConfig() != null ? image.getConfig().getLabels() : null;
+        if (labels == null || !labels.containsKey(COMMAND_LABEL)) {
+            throw new IllegalArgumentException("Image " + imageName + " is not a Warp10 checkpoint");
+        }
+        if (!labels.containsKey(DATA_LABEL) || !labels.containsKey(OWNER_LABEL) || !labels.containsKey(APPLICATION_LABEL)) {
+            throw new IllegalArgumentException("Checkpoint image " + imageName + " was created by an older version, create it again");
+        }
+
+        try {
+            List<String> command = MAPPER.readValue(labels.get(COMMAND_LABEL), new TypeReference<List<String>>() {
+            });
+            return new Warp10Checkpoint(
+                UUID.fromString(labels.get(OWNER_LABEL)),
+                labels.get(APPLICATION_LABEL),
+                labels.get(DATA_LABEL),
+                command);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid labels on checkpoint image " + imageName, e);
+        }
+    }
+
+    UUID getOwnerAndProducer() {
+        return ownerAndProducer;
+    }
+
+    String getApplication() {
+        return application;
+    }
+
+    /**
+     * Reads the crypto keys from the filesystem of a container started from the checkpoint.
+     *
+     * @param container the started container.
+     * @return the keys of the checkpointed container
+     */
+    Warp10CryptoKeys readCryptoKeys(final GenericContainer<?> container) {
+        Map<String, String> keys = container.copyFileFromContainer(CRYPTO_KEYS_PATH,
+            stream -> MAPPER.readValue(stream, new TypeReference<Map<String, String>>() {
+            }));
+        Warp10CryptoKeys cryptoKeys = new Warp10CryptoKeys(keys.get("aesTokenKey"), keys.get("sipHashApp"), keys.get("sipHashToken"));
+        if (!cryptoKeys.isValid()) {
+            throw new IllegalStateException("Invalid crypto keys in the checkpoint: " + CRYPTO_KEYS_PATH);
+        }
+        return cryptoKeys;
+    }
+
+    /**
+     * @return the entrypoint restoring the data before running the original one
+     */
+    String[] restoreEntrypoint() {
+        return new String[]{"sh", "-c", RESTORE_SCRIPT, "sh"};
+    }
+
+    /**
+     * @return the data directory then the original entrypoint and command, given as arguments of the restore entrypoint
+     */
+    String[] restoreCommand() {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(dataPath);
+        arguments.addAll(command);
+        return arguments.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,207 @@
+package com.clevercloud.testcontainers.warp10;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client bound to a Warp10 container, see {@link Warp10Container#client()}.
+ * <p>
+ * All the requests of a client share the same connection pool. Instances are thread safe.
+ */
+public class Warp10Client implements AutoCloseable {
+    static final String TOKEN_HEADER = "X-Warp10-Token";
+    static final String UPDATE_API = "/api/v0/update";
+    static final String EXEC_API = "/api/v0/exec";
+    static final String FETCH_API = "/api/v0/fetch";
+    static final String ERROR_MESSAGE_HEADER = "X-Warp10-Error-Message";
+    static final MediaType TEXT = MediaType.get("text/plain");
+
+    private static final int MAX_REQUESTS = 64;
+
+    private final String baseUrl;
+    private final String readToken;
+    private final String writeToken;
+    private final OkHttpClient httpClient;
+
+    /**
+     * @param baseUrl    base URL of Warp10, e.g. http://localhost:8080.
+     * @param readToken  token used for fetches.
+     * @param writeToken token used for updates.
+     */
+    public Warp10Client(String baseUrl, String readToken, String writeToken) {
+        this.baseUrl = baseUrl;
+        this.readToken = readToken;
+        this.writeToken = writeToken;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS);
+        this.httpClient = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(MAX_REQUESTS, 5, TimeUnit.MINUTES))
+            .readTimeout(Duration.ofMinutes(5))
+            .writeTimeout(Duration.ofMinutes(5))
+            .build();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getReadToken() {
+        return readToken;
+    }
+
+    public String getWriteToken() {
+        return writeToken;
+    }
+
+    /**
+     * Creates a batching ingester writing with this client's write token.
+     *
+     * @return the ingester, to be closed once all the points are written.
+     */
+    public Warp10Ingester ingester() {
+        return new Warp10Ingester(this, writeToken);
+    }
+
+    /**
+     * Creates a batching ingester writing with the given token, e.g. a tenant's.
+     *
+     * @param writeToken the token used for updates.
+     * @return the ingester, to be closed once all the points are written.
+     */
+    public Warp10Ingester ingester(String writeToken) {
+        return new Warp10Ingester(this, writeToken);
+    }
+
+    /**
+     * Opens a WebSocket stream writer with this client's write token, for sustained ingestion.
+     *
+     * @return the writer, to be closed once all the points are written.
+     */
+    public Warp10StreamWriter streamWriter() {
+        return new Warp10StreamWriter(this, writeToken);
+    }
+
+    /**
+     * Opens a WebSocket stream writer with the given token.
+     *
+     * @param writeToken the token used for updates.
+     * @return the writer, to be closed once all the points are written.
+     */
+    public Warp10StreamWriter streamWriter(String writeToken) {
+        return new Warp10StreamWriter(this, writeToken);
+    }
+
+    /**
+     * Creates a synthetic workload of updates and queries, using this client's tokens.
+     *
+     * @return the workload, to be configured then run.
+     */
+    public Warp10Workload workload() {
+        return new Warp10Workload(this);
+    }
+
+    /**
+     * Sends GTS input format lines in a single request.
+     *
+     * @param gts the lines.
+     */
+    public void update(String gts) throws IOException {
+        Request request = new Request.Builder()
+            .url(baseUrl + UPDATE_API)
+            .header(TOKEN_HEADER, writeToken)
+            .post(RequestBody.create(gts, TEXT))
+            .build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Warp10 update failed with code " + response.code() + ": " + response.header(ERROR_MESSAGE_HEADER));
+            }
+        }
+    }
+
+    /**
+     * Executes WarpScript and streams the series left on the stack.
+     *
+     * @param script the WarpScript code.
+     * @return the reader, to be closed to release the connection.
+     */
+    public Warp10SeriesReader exec(String script) throws IOException {
+        Request request = new Request.Builder()
+            .url(baseUrl + EXEC_API)
+            .post(RequestBody.create(script, TEXT))
+            .build();
+        Response response = call(request, "exec");
+        return new Warp10ExecReader(response.body().byteStream(), response);
+    }
+
+    /**
+     * Fetches series with this client's read token and streams them.
+     *
+     * @param selector class and labels selector, e.g. {@code ~temperature{room=kitchen}}.
+     * @param now      end of the fetched range, in platform time units.
+     * @param timespan length of the fetched range in platform time units, or the number of points if negative.
+     * @return the reader, to be closed to release the connection.
+     */
+    public Warp10SeriesReader fetch(String selector, long now, long timespan) throws IOException {
+        return fetch(readToken, selector, now, timespan);
+    }
+
+    /**
+     * Fetches series and streams them.
+     *
+     * @param readToken the token used for the fetch, e.g. a tenant's.
+     * @param selector  class and labels selector, e.g. {@code ~temperature{room=kitchen}}.
+     * @param now       end of the fetched range, in platform time units.
+     * @param timespan  length of the fetched range in platform time units, or the number of points if negative.
+     * @return the reader, to be closed to release the connection.
+     */
+    public Warp10SeriesReader fetch(String readToken, String selector, long now, long timespan) throws IOException {
+        HttpUrl url = HttpUrl.get(baseUrl + FETCH_API).newBuilder()
+            .addQueryParameter("selector", selector)
+            .addQueryParameter("now", Long.toString(now))
+            .addQueryParameter("timespan", Long.toString(timespan))
+            .addQueryParameter("format", "text")
+            .build();
+        Request request = new Request.Builder()
+            .url(url)
+            .header(TOKEN_HEADER, readToken)
+            .get()
+            .build();
+        Response response = call(request, "fetch");
+        return new Warp10FetchReader(response.body().byteStream(), response);
+    }
+
+    private Response call(Request request, String operation) throws IOException {
+        Response response = httpClient.newCall(request).execute();
+        if (!response.isSuccessful() || response.body() == null) {
+            try (response) {
+                throw new IOException("Warp10 " + operation + " failed with code " + response.code() + ": " + response.header(ERROR_MESSAGE_HEADER));
+            }
+        }
+        return response;
+    }
+
+    OkHttpClient httpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Releases the connections of the client.
+     */
+    @Override
+    public void close() {
+        httpClient.connectionPool().evictAll();
+    }
+}
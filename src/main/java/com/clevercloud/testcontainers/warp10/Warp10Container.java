@@ -4,21 +4,42 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.dockerjava.api.command.InspectContainerResponse;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
 import org.testcontainers.containers.GenericContainer;
-import org.testcontainers.containers.wait.strategy.HttpWaitStrategy;
-import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.images.builder.Transferable;
 import org.testcontainers.utility.DockerImageName;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,17 +51,85 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
     private static final String DEFAULT_TAG = "3.4.1-ubuntu-ci";
     private static final int WARP10_DEFAULT_PORT = 8080;
     private static final String WARP10_PROTOCOL = "http";
-    private static final String WARP10_TOKEN_DEFAULT_APP_NAME = "test";
-    private static final long WARP10_TOKEN_DEFAULT_VALIDITY = 365L * 24 * 3600 * 1000; // 1 year in milliseconds
+    private static final String WARP10_TOKEN_DEFAULT_APP_NAME = "demo.CHANGEME";
+    private static final Duration WARP10_TOKEN_DEFAULT_VALIDITY = Duration.ofDays(14);
 
     // Crypto keys configuration
     private static final String WARP10_CONFIG_PATH = "/opt/warp10/etc/conf.d/99-init.conf";
     private static final Pattern AES_TOKEN_PATTERN = Pattern.compile("warp\\.aes\\.token\\s*=\\s*hex:([0-9a-fA-F]+)");
     private static final Pattern SIP_HASH_APP_PATTERN = Pattern.compile("warp\\.hash\\.app\\s*=\\s*hex:([0-9a-fA-F]+)");
     private static final Pattern SIP_HASH_TOKEN_PATTERN = Pattern.compile("warp\\.hash\\.token\\s*=\\s*hex:([0-9a-fA-F]+)");
+    // Loaded after 99-init.conf, so the keys they define take precedence over the generated ones
+    private static final String WARP10_CONFIG_OVERRIDE_TEMPLATE_PATH = "/config.extra/99-testcontainers-%s.conf.template";
 
-    private Warp10Tokens WARP10_TOKENS = null;
-    private Warp10CryptoKeys WARP10_CRYPTO_KEYS = null;
+    // Token generation
+    private static final String WARP10_TOKENGEN_SPECS_PATH = "/opt/warp10/tokens/specs-%s.mc2";
+
+    // Runs the post-start steps which can overlap
+    private static final ExecutorService STARTUP_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "warp10-startup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService ASYNC_START_EXECUTOR = Warp10Executors.newVirtualThreadPerTaskExecutor()
+        .orElse(STARTUP_EXECUTOR);
+
+    // Macros
+    private static final String WARP10_MACROS_PATH = "/opt/warp10/macros/";
+    private static final String WARP10_MACROS_SYNC_MACRO = "testcontainers/sync";
+    private static final Duration WARP10_MACROS_LOAD_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration WARP10_MACROS_POLL_INTERVAL = Duration.ofMillis(100);
+
+    private static final String WARP10_EXEC_API = "/api/v0/exec";
+    private static final String WARP10_LEVELDB_PATH = "/opt/warp10/leveldb";
+
+    // Datasets, copied at creation and ingested from inside the container
+    private static final String WARP10_DATASETS_PATH = "/opt/warp10/datasets/";
+    private static final String WARP10_UPDATE_API = "/api/v0/update";
+    private static final int WARP10_DATASET_DEFAULT_PARALLELISM = 4;
+    private static final OkHttpClient HTTP_CLIENT = new OkHttpClient();
+
+    // Shared containers, one per image tag, started on first use and stopped when the JVM exits.
+    // The map holds futures so that a container is started outside of computeIfAbsent, without blocking other tags.
+    private static final Map<String, CompletableFuture<Warp10Container>> SHARED_CONTAINERS = new ConcurrentHashMap<>();
+    private static final AtomicLong TENANT_COUNTER = new AtomicLong();
+
+    // Written once the container is started and read from any test thread
+    private volatile Warp10Tokens WARP10_TOKENS = null;
+    private volatile Warp10CryptoKeys WARP10_CRYPTO_KEYS = null;
+    private volatile Warp10TokenEncoder WARP10_TOKEN_ENCODER = null;
+    private Warp10Client WARP10_CLIENT = null;
+    private Warp10ExecProfiler WARP10_PROFILER = null;
+    private boolean shared = false;
+
+    // Startup instrumentation
+    private final List<Warp10StartupListener> startupListeners = new ArrayList<>();
+    private volatile long imageResolvedAt = 0L;
+    private volatile Duration imageResolution = null;
+    private Map<Warp10StartupReport.Phase, Duration> startupPhases = null;
+    private long startupStartedAt = 0L;
+    private long startupMark = 0L;
+    private volatile Warp10StartupReport startupReport = null;
+    private boolean inJvmTokenGeneration = true;
+    // Owner, producer and application of the default tokens, restored from a checkpoint
+    private UUID ownerAndProducer = UUID.randomUUID();
+    private String tokenApplication = WARP10_TOKEN_DEFAULT_APP_NAME;
+    private final List<Warp10TokenSpec> tokenSpecs = new ArrayList<>();
+    private boolean providedCryptoKeys = false;
+    private final List<Path> datasets = new ArrayList<>();
+    private int datasetParallelism = WARP10_DATASET_DEFAULT_PARALLELISM;
+    private boolean volatileStorage = false;
+    private boolean inMemoryStorage = false;
+    private boolean resettableData = false;
+    private boolean checkpoints = false;
+    private Warp10Tuning tuning = null;
+    // Configuration overrides by name, the last one given for a name wins
+    private final Map<String, Map<String, String>> configOverrides = new LinkedHashMap<>();
+    private final Map<String, Transferable> configOverrideFiles = new HashMap<>();
+    private String checkpointImage = null;
+    // The create command modifiers are registered by the first configure() only, restarts would add them again
+    private boolean createCommandModifiers = false;
+    private Warp10Checkpoint checkpoint = null;
 
     public Warp10Container() {
         this(DEFAULT_TAG);
@@ -85,54 +174,710 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
         this.init(dockerImageName);
     }
 
-    private static ImageFromDockerfile setupImage(final String tag, final File macrosFolder, final File configFolder) {
-        ImageFromDockerfile image = new ImageFromDockerfile();
-        if (macrosFolder != null) {
-            if (macrosFolder.exists()) {
-                image.withFileFromFile(macrosFolder.getPath(), macrosFolder);
-            } else {
-                throw new RuntimeException(String.format("Macro folder %s does not exist", macrosFolder.getPath()));
-            }
+    /**
+     * Resolves the image embedding the macros and config folders. Images are named after the tag and the content
+     * of the folders, so they are only built once and reused by all containers sharing the same setup.
+     */
+    private static Future<String> setupImage(final String tag, final File macrosFolder, final File configFolder) {
+        if (macrosFolder != null && !macrosFolder.exists()) {
+            throw new RuntimeException(String.format("Macro folder %s does not exist", macrosFolder.getPath()));
         }
-        if (configFolder != null) {
-            if (configFolder.exists()) {
-                image.withFileFromFile(configFolder.getPath(), configFolder);
-            } else {
-                throw new RuntimeException(String.format("Config folder %s does not exist", configFolder.getPath()));
+        if (configFolder != null && !configFolder.exists()) {
+            throw new RuntimeException(String.format("Config folder %s does not exist", configFolder.getPath()));
+        }
+
+        String baseImage = ImageNameSubstitutor.instance()
+            .apply(DEFAULT_IMAGE_NAME.withTag(tag))
+            .asCanonicalNameString();
+        return Warp10ImageCache.image(baseImage, macrosFolder, configFolder);
+    }
+
+    /**
+     * Gets the container shared by the whole JVM for the default tag, starting it on first use.
+     * Tests should isolate their data with {@link #newTenant()}; closing a shared container has no effect.
+     *
+     * @return the started shared container.
+     */
+    public static Warp10Container shared() {
+        return shared(DEFAULT_TAG);
+    }
+
+    /**
+     * Gets the container shared by the whole JVM for the given tag, starting it on first use.
+     * Tests should isolate their data with {@link #newTenant()}; closing a shared container has no effect.
+     *
+     * @param tag version tag for the docker image.
+     * @return the started shared container.
+     */
+    public static Warp10Container shared(final String tag) {
+        CompletableFuture<Warp10Container> created = new CompletableFuture<>();
+        CompletableFuture<Warp10Container> future = SHARED_CONTAINERS.computeIfAbsent(tag, key -> created);
+        if (future == created) {
+            try {
+                Warp10Container container = new Warp10Container(tag).withInJvmTokenGeneration();
+                container.start();
+                container.shared = true;
+                created.complete(container);
+            } catch (RuntimeException | Error e) {
+                // Let a later call try again
+                SHARED_CONTAINERS.remove(tag, created);
+                created.completeExceptionally(e);
+                throw e;
             }
         }
-        return image.withDockerfileFromBuilder(builder -> {
-            builder.from(ImageNameSubstitutor.instance()
-                .apply(DEFAULT_IMAGE_NAME.withTag(tag))
-                .asCanonicalNameString());
-            if (macrosFolder != null && macrosFolder.exists())
-                builder.add(macrosFolder.getPath(), "/opt/warp10/macros/");
-            if (configFolder != null && configFolder.exists())
-                builder.add(configFolder.getPath(), "/config.extra");
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("The shared Warp10 container for tag " + tag + " failed to start", e.getCause());
+        }
+    }
+
+    /**
+     * Creates a container starting from a checkpoint, with the data and crypto keys the checkpointed container had.
+     * The datasets are not ingested again. The default tokens are minted again for the same owner and application, so
+     * that they read the checkpointed data however old the checkpoint is. Additional tokens are not kept, see
+     * {@link #withTokens(Warp10TokenSpec...)}.
+     *
+     * @param name name given to {@link #checkpoint(String)}.
+     * @return the container, to be started.
+     */
+    public static Warp10Container fromCheckpoint(final String name) {
+        Warp10Container container = new Warp10Container(DockerImageName.parse(Warp10Checkpoint.imageName(name)));
+        container.checkpointImage = Warp10Checkpoint.imageName(name);
+        return container;
+    }
 
-            builder.build();
-        });
+    /**
+     * @param name name given to {@link #checkpoint(String)}.
+     * @return whether the checkpoint image exists locally
+     */
+    public static boolean hasCheckpoint(final String name) {
+        return Warp10Checkpoint.exists(name);
     }
 
     private void init(final DockerImageName dockerImageName) {
         logger().info("Starting a Warp10 container using [{}]", dockerImageName);
         addExposedPort(WARP10_DEFAULT_PORT);
-        setWaitStrategy(new HttpWaitStrategy()
-            .forPort(WARP10_DEFAULT_PORT)
-            .forStatusCode(404)
+        setWaitStrategy(new Warp10WaitStrategy(WARP10_DEFAULT_PORT)
             .withStartupTimeout(Duration.ofMinutes(2))
         );
     }
 
+    /**
+     * Generate the tokens in the JVM from the crypto keys, which is the default.
+     *
+     * @return this container.
+     */
+    public Warp10Container withInJvmTokenGeneration() {
+        this.inJvmTokenGeneration = true;
+        return self();
+    }
+
+    /**
+     * Generate the tokens by running tokengen in the container instead of minting them in the JVM. tokengen starts a
+     * second Warp10 JVM, which makes the startup slower, but the tokens come from Warp10 itself. Both ways generate
+     * the same tokens.
+     *
+     * @return this container.
+     */
+    public Warp10Container withTokenGen() {
+        this.inJvmTokenGeneration = false;
+        return self();
+    }
+
+    /**
+     * Generate additional tokens at startup, in the same pass as the default read and write tokens.
+     * They can then be retrieved with {@link #getToken(String)}.
+     *
+     * @param specs descriptions of the tokens, each with an id other than the ids of the default tokens.
+     * @return this container.
+     */
+    public Warp10Container withTokens(final Warp10TokenSpec... specs) {
+        for (Warp10TokenSpec spec : specs) {
+            requireAdditionalId(spec);
+            if (tokenSpecs.stream().anyMatch(s -> s.getId().equalsIgnoreCase(spec.getId()))) {
+                throw new IllegalArgumentException("Duplicate token id: " + spec.getId());
+            }
+            tokenSpecs.add(spec);
+        }
+        return self();
+    }
+
+    /**
+     * Use the given crypto keys instead of the ones Warp10 generates at first boot.
+     * The keys are written in the container configuration before it starts, so they don't have to be extracted
+     * afterwards and tokens minted with them stay valid across runs.
+     *
+     * @param cryptoKeys the keys to use, see {@link Warp10CryptoKeys#generate()}.
+     * @return this container.
+     */
+    public Warp10Container withCryptoKeys(final Warp10CryptoKeys cryptoKeys) {
+        if (cryptoKeys == null || !cryptoKeys.isValid()) {
+            throw new IllegalArgumentException("Invalid crypto keys: " + cryptoKeys);
+        }
+
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("warp.aes.token", "hex:" + cryptoKeys.getAesTokenKey());
+        config.put("warp.hash.app", "hex:" + cryptoKeys.getSipHashApp());
+        config.put("warp.hash.token", "hex:" + cryptoKeys.getSipHashToken());
+        withConfigOverride("crypto", config);
+
+        this.WARP10_CRYPTO_KEYS = cryptoKeys;
+        this.WARP10_TOKEN_ENCODER = null;
+        this.providedCryptoKeys = true;
+        return self();
+    }
+
+    /**
+     * Sets how often Warp10 scans its macros folder, 60s by default.
+     * A short interval makes {@link #loadMacros(File)} and {@link #replaceMacro(String, String)} return faster.
+     *
+     * @param refresh the interval between two scans of the macros folder.
+     * @return this container.
+     */
+    public Warp10Container withMacroRefresh(final Duration refresh) {
+        withConfigOverride("macros", Map.of("warpscript.repository.refresh", String.valueOf(refresh.toMillis())));
+        return self();
+    }
+
+    /**
+     * Stores the data in memory instead of LevelDB, without any retention limit.
+     * Data is lost when the container stops, which is what tests usually want, and writes don't hit the disk.
+     *
+     * @return this container.
+     */
+    public Warp10Container withInMemoryStorage() {
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("backend", "memory");
+        config.put("in.memory.chunked", "false");
+        withConfigOverride("storage", config);
+        this.volatileStorage = true;
+        this.inMemoryStorage = true;
+        return self();
+    }
+
+    /**
+     * Stores the data in memory instead of LevelDB, in time chunks. Only the last chunkCount chunks are kept, so
+     * the retention is chunkCount * chunkLength and long running ingest tests use a bounded amount of memory.
+     *
+     * @param chunkCount  number of chunks kept.
+     * @param chunkLength time span of a chunk, converted to microseconds (the default platform time unit).
+     * @return this container.
+     */
+    public Warp10Container withInMemoryStorage(final int chunkCount, final Duration chunkLength) {
+        if (chunkCount < 1 || chunkLength.isNegative() || chunkLength.isZero()) {
+            throw new IllegalArgumentException("Invalid in-memory chunks: " + chunkCount + " x " + chunkLength);
+        }
+
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("backend", "memory");
+        config.put("in.memory.chunked", "true");
+        config.put("in.memory.chunk.count", String.valueOf(chunkCount));
+        config.put("in.memory.chunk.length", String.valueOf(TimeUnit.NANOSECONDS.toMicros(chunkLength.toNanos())));
+        withConfigOverride("storage", config);
+        this.volatileStorage = true;
+        this.inMemoryStorage = true;
+        return self();
+    }
+
+    /**
+     * Keeps the LevelDB data on a tmpfs mount instead of the container filesystem.
+     *
+     * @param size size of the tmpfs, in the docker syntax (e.g. "512m", "2g").
+     * @return this container.
+     */
+    public Warp10Container withTmpfsData(final String size) {
+        if (size == null || size.isBlank()) {
+            throw new IllegalArgumentException("Invalid tmpfs size: " + size);
+        }
+
+        withTmpFs(Map.of(WARP10_LEVELDB_PATH, "rw,mode=1777,size=" + size));
+        withConfigOverride("leveldb", Map.of("leveldb.home", WARP10_LEVELDB_PATH));
+        this.volatileStorage = true;
+        return self();
+    }
+
+    /**
+     * Applies JVM and storage settings to the Warp10 process, validated when the container starts.
+     *
+     * @param tuning the settings, see {@link Warp10Tuning#create()}.
+     * @return this container.
+     */
+    public Warp10Container withTuning(final Warp10Tuning tuning) {
+        this.tuning = Objects.requireNonNull(tuning, "tuning");
+        return self();
+    }
+
+    /**
+     * Allows {@link #reset()} to bring the data back to its state at startup. The Warp10 process then runs under a
+     * small supervisor in the container, and once the container is started, Warp10 is restarted to copy its data.
+     *
+     * @return this container.
+     */
+    public Warp10Container withResettableData() {
+        this.resettableData = true;
+        return self();
+    }
+
+    /**
+     * Allows {@link #checkpoint(String)} to commit the container. The Warp10 process then runs under a small supervisor
+     * in the container, so that it can be stopped while its data is archived.
+     *
+     * @return this container.
+     */
+    public Warp10Container withCheckpoints() {
+        this.checkpoints = true;
+        return self();
+    }
+
+    /**
+     * Restores the data as it was when the container started: empty, or holding the datasets. Only the Warp10 process
+     * restarts, from a copy of its data taken at startup, so the container, its ports, crypto keys and tokens are kept.
+     * With in-memory storage, the restarted Warp10 is empty and the datasets are ingested again.
+     * Nothing should write to Warp10 during the reset, which is why the shared container can't be reset.
+     *
+     * @return the time the reset took, until Warp10 answered again.
+     */
+    public Duration reset() {
+        if (shared) {
+            throw new IllegalStateException("The shared Warp10 container can't be reset, it would reset the data of every tenant");
+        }
+        if (!resettableData) {
+            throw new IllegalStateException("Data reset is not enabled, see withResettableData()");
+        }
+        if (WARP10_TOKENS == null) {
+            throw new IllegalStateException("Warp10 container is not started");
+        }
+
+        long start = System.nanoTime();
+        try {
+            // In memory, restarting Warp10 is enough to empty it
+            if (inMemoryStorage) {
+                execWhileStopped("restart Warp10");
+            } else {
+                execWhileStopped("reset Warp10 data", "sh", "-c", Warp10Supervisor.RESTORE_BASELINE_SCRIPT);
+            }
+            if (inMemoryStorage && !datasets.isEmpty()) {
+                ingestDatasets();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        logger().info("Warp10 data reset in {}", duration);
+        return duration;
+    }
+
+    private void captureResetBaseline() throws IOException, InterruptedException {
+        if (!inMemoryStorage) {
+            execWhileStopped("copy the Warp10 data baseline", "sh", "-c", Warp10Supervisor.BASELINE_SCRIPT);
+        }
+    }
+
+    /**
+     * Stops the Warp10 process, runs the command while LevelDB is closed, then starts Warp10 again and waits until it
+     * is ready. Requires the supervisor, see {@link Warp10Supervisor}.
+     *
+     * @param description what the command does, for the error message.
+     * @param command     the command to run while Warp10 is stopped, none to only restart Warp10.
+     */
+    void execWhileStopped(final String description, final String... command) throws IOException, InterruptedException {
+        // Container clock, which stamps the log, in seconds
+        ExecResult clock = execInContainer("date", "+%s");
+        if (clock.getExitCode() != 0) {
+            throw new RuntimeException("Failed to read the container clock: " + clock.getStderr());
+        }
+        // The markers of the previous start may have been logged during the same second
+        Instant restart = Instant.ofEpochSecond(Long.parseLong(clock.getStdout().trim()) + 1);
+        execOrFail("stop Warp10", "sh", "-c", Warp10Supervisor.STOP_SCRIPT);
+        try {
+            if (command.length > 0) {
+                execOrFail(description, command);
+            }
+        } finally {
+            execOrFail("start Warp10 again", "sh", "-c", Warp10Supervisor.RESUME_SCRIPT);
+        }
+        new Warp10WaitStrategy(WARP10_DEFAULT_PORT)
+            .withLogsSince(restart)
+            .withStartupTimeout(Duration.ofMinutes(2))
+            .waitUntilReady(this);
+    }
+
+    private void execOrFail(final String description, final String... command) throws IOException, InterruptedException {
+        ExecResult result = execInContainer(command);
+        if (result.getExitCode() != 0) {
+            throw new RuntimeException("Failed to " + description + ": " + result.getStderr());
+        }
+    }
+
+    /**
+     * Commits the started container to a local image, with its data, crypto keys and tokens, so that
+     * {@link #fromCheckpoint(String)} can start a copy of it without running the setup again.
+     * Warp10 is stopped while its data is archived, so it should not be used meanwhile.
+     *
+     * @param name name of the checkpoint, a valid docker tag. An existing checkpoint with this name is replaced.
+     * @return the name of the checkpoint image.
+     */
+    public String checkpoint(final String name) {
+        if (!checkpoints) {
+            throw new IllegalStateException("Checkpoints are not enabled, see withCheckpoints()");
+        }
+        if (volatileStorage) {
+            throw new IllegalStateException("Warp10 data is not on the container filesystem, see withInMemoryStorage() and withTmpfsData()");
+        }
+
+        long start = System.nanoTime();
+        try {
+            String imageName = Warp10Checkpoint.create(this, name, checkpoint);
+            logger().info("Warp10 checkpoint {} created in {}", imageName, Duration.ofNanos(System.nanoTime() - start));
+            return imageName;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to checkpoint Warp10 container", e);
+        }
+    }
+
+    /**
+     * Ingests GTS input format files before the container is reported started. The files are copied into the
+     * container when it is created and ingested from inside it, so the data doesn't go through the port mapping.
+     * Files ending with .gz are sent compressed. Files are ingested in parallel, so a big dataset should be split.
+     *
+     * @param files the GTS input format files, optionally gzip compressed.
+     * @return this container.
+     */
+    public Warp10Container withDataset(final Path... files) {
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                throw new IllegalArgumentException(String.format("Dataset %s is not a file", file));
+            }
+            withCopyToContainer(MountableFile.forHostPath(file, 0644), datasetPath(datasets.size(), file));
+            datasets.add(file);
+        }
+        return self();
+    }
+
+    /**
+     * @param parallelism number of dataset files ingested at the same time, 4 by default.
+     * @return this container.
+     */
+    public Warp10Container withDatasetParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Dataset parallelism must be at least 1: " + parallelism);
+        }
+        this.datasetParallelism = parallelism;
+        return self();
+    }
+
+    private static String datasetPath(final int index, final Path file) {
+        return WARP10_DATASETS_PATH + index + "-" + file.getFileName();
+    }
+
+    private void applyTuning() {
+        Map<String, String> config = tuning.config();
+        if (!config.isEmpty()) {
+            withConfigOverride("tuning", config);
+        }
+        tuning.environment().forEach(this::withEnv);
+    }
+
+    /**
+     * Writes a configuration file overriding the given keys, loaded after the configuration generated at first boot.
+     * The file is named after the override, a later call with the same name replacing it.
+     */
+    void withConfigOverride(final String name, final Map<String, String> config) {
+        configOverrides.put(name, new LinkedHashMap<>(config));
+    }
+
+    /**
+     * Copies each override once, copies being keyed by their {@link Transferable}: the file of an override is the same
+     * on every start, and renders its latest content when the container is created.
+     */
+    private void copyConfigOverrides() {
+        for (String name : configOverrides.keySet()) {
+            Transferable file = configOverrideFiles.computeIfAbsent(name, key -> new Transferable() {
+                @Override
+                public long getSize() {
+                    return getBytes().length;
+                }
+
+                @Override
+                public byte[] getBytes() {
+                    StringBuilder content = new StringBuilder();
+                    configOverrides.get(key).forEach((configKey, value) -> content.append(configKey).append(" = ").append(value).append('\n'));
+                    return content.toString().getBytes(StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public String getDescription() {
+                    return "Warp10 configuration override " + key;
+                }
+            });
+            withCopyToContainer(file, String.format(WARP10_CONFIG_OVERRIDE_TEMPLATE_PATH, name));
+        }
+    }
+
+    /**
+     * Starts the container without blocking the caller, on a virtual thread when the JVM supports them.
+     *
+     * @return a future completed once the container is started and its tokens are ready.
+     */
+    public CompletableFuture<Warp10Container> startAsync() {
+        return startAsync(ASYNC_START_EXECUTOR);
+    }
+
+    /**
+     * Starts the container without blocking the caller.
+     *
+     * @param executor executor running the start.
+     * @return a future completed once the container is started and its tokens are ready.
+     */
+    public CompletableFuture<Warp10Container> startAsync(final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            start();
+            return this;
+        }, executor);
+    }
+
+    /**
+     * Notify the listener of each startup phase, in addition to {@link Warp10StartupMetrics#global()}.
+     *
+     * @param listener the listener.
+     * @return this container.
+     */
+    public Warp10Container withStartupListener(final Warp10StartupListener listener) {
+        startupListeners.add(listener);
+        return self();
+    }
+
+    /**
+     * @return the time spent in each startup phase, or null if the container is not started
+     */
+    public Warp10StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    @Override
+    public String getDockerImageName() {
+        if (imageResolvedAt != 0L) {
+            return super.getDockerImageName();
+        }
+
+        // The first call resolves the image, pulling or building it
+        long start = System.nanoTime();
+        String imageName = super.getDockerImageName();
+        if (imageResolvedAt == 0L) {
+            imageResolvedAt = System.nanoTime();
+            imageResolution = Duration.ofNanos(imageResolvedAt - start);
+        }
+        return imageName;
+    }
+
+    @Override
+    protected void doStart() {
+        startupPhases = new EnumMap<>(Warp10StartupReport.Phase.class);
+        startupStartedAt = System.nanoTime();
+        startupMark = startupStartedAt;
+        startupReport = null;
+        super.doStart();
+    }
+
+    @Override
+    protected void containerIsCreated(String containerId) {
+        if (imageResolution != null) {
+            // The image is resolved either when the container is built or at the beginning of its start
+            startupMark = Math.max(startupMark, imageResolvedAt);
+            startupPhase(Warp10StartupReport.Phase.IMAGE, imageResolution);
+        }
+        startupPhase(Warp10StartupReport.Phase.CREATE);
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo) {
+        startupPhase(Warp10StartupReport.Phase.START);
+    }
+
+    @Override
+    protected void configure() {
+        super.configure();
+        if (checkpointImage != null) {
+            checkpoint = Warp10Checkpoint.load(checkpointImage);
+            ownerAndProducer = checkpoint.getOwnerAndProducer();
+            tokenApplication = checkpoint.getApplication();
+        }
+        if (tuning != null) {
+            applyTuning();
+        }
+        copyConfigOverrides();
+
+        if (!createCommandModifiers) {
+            createCommandModifiers = true;
+            // After the user's modifiers, in this order, so that the restored entrypoint runs under the supervisor and
+            // the tuning is validated against the memory limit the others may have set
+            withCreateContainerCmdModifier(cmd -> {
+                if (checkpoint != null) {
+                    cmd.withEntrypoint(checkpoint.restoreEntrypoint()).withCmd(checkpoint.restoreCommand());
+                }
+            });
+            withCreateContainerCmdModifier(cmd -> {
+                if (resettableData || checkpoints) {
+                    Warp10Supervisor.apply(cmd);
+                }
+            });
+            withCreateContainerCmdModifier(cmd -> {
+                if (tuning != null) {
+                    Long memory = cmd.getHostConfig() != null ? cmd.getHostConfig().getMemory() : null;
+                    for (String warning : tuning.validate(memory != null ? memory : 0L)) {
+                        logger().warn("Warp10 tuning: {}", warning);
+                    }
+                }
+            });
+        }
+    }
+
     @Override
     protected void containerIsStarted(InspectContainerResponse containerInfo) {
+        startupPhase(Warp10StartupReport.Phase.WAIT);
+        if (checkpoint != null) {
+            // Same keys as the checkpointed container, fresh tokens for the same owner so that they haven't expired
+            timedStartupStep(Warp10StartupReport.Phase.CRYPTO_KEYS, () -> {
+                WARP10_TOKEN_ENCODER = null;
+                WARP10_CRYPTO_KEYS = checkpoint.readCryptoKeys(this);
+            });
+            timedStartupStep(Warp10StartupReport.Phase.TOKEN_GENERATION, inJvmTokenGeneration ? this::mintDefaultTokens : this::generateTokens);
+        } else if (inJvmTokenGeneration) {
+            // Minting tokens requires the crypto keys
+            if (!providedCryptoKeys) {
+                timedStartupStep(Warp10StartupReport.Phase.CRYPTO_KEYS, this::extractCryptoKeys);
+            }
+            timedStartupStep(Warp10StartupReport.Phase.TOKEN_GENERATION, this::mintDefaultTokens);
+        } else {
+            // tokengen does not depend on the crypto keys, extract them meanwhile
+            CompletableFuture<Void> cryptoKeys = providedCryptoKeys
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> timedStartupStep(Warp10StartupReport.Phase.CRYPTO_KEYS, this::extractCryptoKeys), STARTUP_EXECUTOR);
+            timedStartupStep(Warp10StartupReport.Phase.TOKEN_GENERATION, this::generateTokens);
+            try {
+                cryptoKeys.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        if (!datasets.isEmpty()) {
+            timedStartupStep(Warp10StartupReport.Phase.DATASETS, this::ingestDatasets);
+        }
+        if (resettableData) {
+            timedStartupStep(Warp10StartupReport.Phase.RESET_BASELINE, this::captureResetBaseline);
+        }
+
+        Duration total = Duration.ofNanos(System.nanoTime() - startupStartedAt);
+        if (imageResolution != null && imageResolvedAt < startupStartedAt) {
+            total = total.plus(imageResolution);
+        }
+        startupReport = new Warp10StartupReport(getDockerImageName(), startupPhases, total);
+        logger().info("Warp10 container started: {}", startupReport);
+        Warp10StartupMetrics.global().onStarted(startupReport);
+        startupListeners.forEach(listener -> listener.onStarted(startupReport));
+    }
+
+    private void timedStartupStep(final Warp10StartupReport.Phase phase, final StartupStep step) {
+        long start = System.nanoTime();
         try {
-            extractCryptoKeys();
-            uploadTokenGen();
-            generateTokens();
+            step.run();
+        } catch (RuntimeException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        startupPhase(phase, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Posts each dataset file to the update endpoint with curl, from inside the container.
+     */
+    private void ingestDatasets() throws IOException, InterruptedException {
+        ExecResult curl = execInContainer("sh", "-c", "command -v curl");
+        if (curl.getExitCode() != 0) {
+            throw new RuntimeException("curl is required in the image to ingest datasets");
+        }
+
+        long bytesTotal = 0L;
+        for (Path file : datasets) {
+            bytesTotal += Files.size(file);
+        }
+        final long totalSize = bytesTotal;
+        long start = System.nanoTime();
+        AtomicLong filesDone = new AtomicLong();
+        AtomicLong bytesDone = new AtomicLong();
+        String writeToken = getWriteToken();
+
+        ExecutorService executor = Warp10Executors.newBoundedExecutor(Math.min(datasetParallelism, datasets.size()), "warp10-dataset");
+        try {
+            List<CompletableFuture<Void>> ingests = new ArrayList<>();
+            for (int i = 0; i < datasets.size(); i++) {
+                final int index = i;
+                final Path file = datasets.get(i);
+                ingests.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        ingestDataset(datasetPath(index, file), file.getFileName().toString().endsWith(".gz"), writeToken);
+                        Warp10DatasetProgress progress = new Warp10DatasetProgress(file, (int) filesDone.incrementAndGet(),
+                            datasets.size(), bytesDone.addAndGet(Files.size(file)), totalSize, Duration.ofNanos(System.nanoTime() - start));
+                        logger().info("Warp10 dataset ingested: {}", progress);
+                        synchronized (this) {
+                            startupListeners.forEach(listener -> listener.onDatasetProgress(progress));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(ingests.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void ingestDataset(final String path, final boolean gzip, final String writeToken) throws IOException, InterruptedException {
+        // -T streams the file instead of loading it in memory as --data-binary does
+        ExecResult result = execInContainer("curl", "-sS", "--fail-with-body", "-X", "POST",
+            "-H", "X-Warp10-Token: " + writeToken,
+            "-H", "Content-Type: " + (gzip ? "application/gzip" : "text/plain"),
+            "-T", path,
+            "http://127.0.0.1:" + WARP10_DEFAULT_PORT + WARP10_UPDATE_API);
+        if (result.getExitCode() != 0) {
+            throw new RuntimeException(String.format("Failed to ingest dataset %s: %s%s", path, result.getStderr(), result.getStdout()));
+        }
+    }
+
+    private interface StartupStep {
+        void run() throws Exception;
+    }
+
+    private void startupPhase(final Warp10StartupReport.Phase phase) {
+        long now = System.nanoTime();
+        Duration duration = Duration.ofNanos(now - startupMark);
+        startupMark = now;
+        startupPhase(phase, duration);
+    }
+
+    private synchronized void startupPhase(final Warp10StartupReport.Phase phase, final Duration duration) {
+        if (startupPhases == null) {
+            return;
+        }
+        startupPhases.put(phase, duration);
+        startupListeners.forEach(listener -> listener.onPhase(phase, duration));
     }
 
     /**
@@ -159,9 +904,11 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
         String sipHashApp = extractKey(configContent, SIP_HASH_APP_PATTERN, "warp.hash.app");
         String sipHashToken = extractKey(configContent, SIP_HASH_TOKEN_PATTERN, "warp.hash.token");
 
-        WARP10_CRYPTO_KEYS = new Warp10CryptoKeys(aesTokenKey, sipHashApp, sipHashToken);
+        Warp10CryptoKeys cryptoKeys = new Warp10CryptoKeys(aesTokenKey, sipHashApp, sipHashToken);
+        WARP10_TOKEN_ENCODER = null;
+        WARP10_CRYPTO_KEYS = cryptoKeys;
 
-        if (!WARP10_CRYPTO_KEYS.isValid()) {
+        if (!cryptoKeys.isValid()) {
             logger().warn("Crypto keys may be invalid. AES key length: {}, SipHash App length: {}, SipHash Token length: {}",
                 aesTokenKey != null ? aesTokenKey.length() : 0,
                 sipHashApp != null ? sipHashApp.length() : 0,
@@ -183,24 +930,54 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
         return null;
     }
 
-    private void uploadTokenGen() throws IOException {
-        try (InputStream inputStream = Warp10Container.class.getClassLoader().getResourceAsStream("tokengen.mc2")) {
-            if (inputStream == null) {
-                throw new FileNotFoundException("Resource tokengen.mc2 not found");
-            }
-
-            Path tempPath = Files.createTempFile("tokengen", ".mc2");
-            Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
-            tempPath.toFile().deleteOnExit();
+    /**
+     * Generates the default read and write tokens and the additional ones by running tokengen in the container.
+     */
+    public void generateTokens() throws IOException, InterruptedException {
+        WARP10_TOKENS = new Warp10Tokens(runTokenGen(defaultTokenSpecs()));
+    }
 
-            MountableFile mountableFile = MountableFile.forHostPath(tempPath.toAbsolutePath());
-            copyFileToContainer(mountableFile, "/opt/warp10/tokens/tokengen.mc2");
+    /**
+     * Generates tokens in a single pass: one tokengen execution in the container, or in the JVM when
+     * {@link #withInJvmTokenGeneration()} is set. The tokens are also available from {@link #getToken(String)}.
+     *
+     * @param specs descriptions of the tokens, each with an id not used by the default or other generated tokens.
+     * @return the generated tokens, indexed by id
+     */
+    public Warp10Tokens generateTokens(final Collection<Warp10TokenSpec> specs) throws IOException, InterruptedException {
+        Warp10Tokens existing = WARP10_TOKENS;
+        for (Warp10TokenSpec spec : specs) {
+            requireAdditionalId(spec);
+            if (existing != null && existing.getToken(spec.getId()) != null) {
+                throw new IllegalArgumentException("Duplicate token id: " + spec.getId());
+            }
+        }
+        List<TokenInfo> tokens = inJvmTokenGeneration ? mintTokens(specs) : runTokenGen(specs);
+        synchronized (this) {
+            Warp10Tokens current = WARP10_TOKENS;
+            WARP10_TOKENS = current != null ? current.with(tokens) : new Warp10Tokens(tokens);
         }
+        return new Warp10Tokens(tokens);
     }
 
+    /**
+     * Runs tokengen once on the TOKENGEN calls of the specs.
+     */
+    private List<TokenInfo> runTokenGen(final Collection<Warp10TokenSpec> specs) throws IOException, InterruptedException {
+        if (specs.isEmpty()) {
+            return List.of();
+        }
 
-    public void generateTokens() throws IOException, InterruptedException {
-        String worfCommand = String.format("/opt/warp10/bin/warp10.sh tokengen - < /opt/warp10/tokens/tokengen.mc2");
+        long now = System.currentTimeMillis();
+        StringBuilder script = new StringBuilder();
+        for (Warp10TokenSpec spec : specs) {
+            requireId(spec);
+            script.append(spec.toWarpScript(now));
+        }
+        String specsPath = String.format(WARP10_TOKENGEN_SPECS_PATH, UUID.randomUUID());
+        copyFileToContainer(Transferable.of(script.toString()), specsPath);
+
+        String worfCommand = "/opt/warp10/bin/warp10.sh tokengen - < " + specsPath;
         ExecResult result = execInContainer("su", "warp10", "-c", worfCommand);
         if (result.getExitCode() > 0) {
             String error = "Warp10 token generation exited with code " + result.getExitCode();
@@ -218,24 +995,298 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
         String stdout = result.getStdout();
         ObjectMapper mapper = new ObjectMapper();
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        TokenInfo[] tokens = mapper.readValue(stdout, TokenInfo[].class);
-        WARP10_TOKENS = new Warp10Tokens(tokens);
+        return List.of(mapper.readValue(stdout, TokenInfo[].class));
+    }
+
+    private List<TokenInfo> mintTokens(final Collection<Warp10TokenSpec> specs) {
+        Warp10TokenEncoder encoder = requireTokenEncoder();
+        List<TokenInfo> tokens = new ArrayList<>(specs.size());
+        for (Warp10TokenSpec spec : specs) {
+            requireId(spec);
+            TokenInfo token = new TokenInfo();
+            token.setId(spec.getId());
+            token.setToken(encoder.encode(spec));
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static void requireId(final Warp10TokenSpec spec) {
+        if (spec.getId() == null) {
+            throw new IllegalArgumentException("Token spec has no id: " + spec);
+        }
+    }
+
+    private static void requireAdditionalId(final Warp10TokenSpec spec) {
+        requireId(spec);
+        if (Warp10Tokens.isDefaultId(spec.getId())) {
+            throw new IllegalArgumentException("Token id " + spec.getId() + " is reserved for a default token");
+        }
+    }
+
+    private void mintDefaultTokens() {
+        WARP10_TOKENS = new Warp10Tokens(mintTokens(defaultTokenSpecs()));
+    }
+
+    /**
+     * The default read and write tokens, sharing an owner and producer, followed by the additional tokens.
+     * Minted in the JVM or by tokengen, so both ways grant the same.
+     */
+    private List<Warp10TokenSpec> defaultTokenSpecs() {
+        Map<String, String> attributes = Map.of(
+            ".cap:tokengen", "",
+            ".cap:limit", "10000000000",
+            ".cap:limits", ""
+        );
+
+        List<Warp10TokenSpec> specs = new ArrayList<>();
+        specs.add(Warp10TokenSpec.read()
+            .withId("ReadToken")
+            .withApplication(tokenApplication)
+            .withOwner(ownerAndProducer)
+            .withValidity(WARP10_TOKEN_DEFAULT_VALIDITY)
+            .withAttributes(attributes));
+        specs.add(Warp10TokenSpec.write()
+            .withId("WriteToken")
+            .withApplication(tokenApplication)
+            .withOwner(ownerAndProducer)
+            .withValidity(WARP10_TOKEN_DEFAULT_VALIDITY)
+            .withAttributes(attributes));
+        specs.addAll(tokenSpecs);
+        return specs;
+    }
+
+    /**
+     * @return the owner and producer of the default tokens
+     */
+    UUID getOwnerAndProducer() {
+        return ownerAndProducer;
+    }
+
+    /**
+     * @return the application of the default tokens
+     */
+    String getTokenApplication() {
+        return tokenApplication;
+    }
+
+    /**
+     * Gets an encoder minting tokens for this container in the JVM.
+     *
+     * @return The token encoder, or null if the crypto keys are not available yet
+     */
+    public Warp10TokenEncoder getTokenEncoder() {
+        Warp10TokenEncoder encoder = WARP10_TOKEN_ENCODER;
+        if (encoder == null) {
+            synchronized (this) {
+                Warp10CryptoKeys cryptoKeys = WARP10_CRYPTO_KEYS;
+                if (WARP10_TOKEN_ENCODER == null && cryptoKeys != null && cryptoKeys.isValid()) {
+                    WARP10_TOKEN_ENCODER = new Warp10TokenEncoder(cryptoKeys);
+                }
+                encoder = WARP10_TOKEN_ENCODER;
+            }
+        }
+        return encoder;
+    }
+
+    /**
+     * Mints a token for this container in the JVM.
+     *
+     * @param spec The token description
+     * @return The token
+     */
+    public String mintToken(Warp10TokenSpec spec) {
+        return requireTokenEncoder().encode(spec);
+    }
+
+    private Warp10TokenEncoder requireTokenEncoder() {
+        Warp10TokenEncoder encoder = getTokenEncoder();
+        if (encoder == null) {
+            throw new IllegalStateException(WARP10_CRYPTO_KEYS == null
+                ? "Crypto keys are not available, the container must be started first"
+                : "Crypto keys are invalid, tokens can't be minted: " + WARP10_CRYPTO_KEYS);
+        }
+        return encoder;
+    }
+
+    /**
+     * Allocates a new tenant: a fresh application name and owner/producer UUID with its own read and write tokens,
+     * which cannot read the data of other tenants. Tokens are minted in the JVM, so allocating tenants is cheap.
+     *
+     * @return the new tenant.
+     */
+    public Warp10Tenant newTenant() {
+        return Warp10Tenant.create(requireTokenEncoder(), "tenant." + TENANT_COUNTER.incrementAndGet(), UUID.randomUUID());
+    }
+
+    /**
+     * Allocates several tenants at once, see {@link #newTenant()}.
+     *
+     * @param count number of tenants to allocate.
+     * @return the new tenants.
+     */
+    public List<Warp10Tenant> newTenants(final int count) {
+        List<Warp10Tenant> tenants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tenants.add(newTenant());
+        }
+        return tenants;
+    }
+
+    @Override
+    public void close() {
+        if (shared) {
+            logger().debug("Ignoring close() on a shared Warp10 container");
+            return;
+        }
+        super.close();
+    }
+
+    /**
+     * Copies macros into the running container and waits for Warp10 to load them.
+     *
+     * @param macrosFolder File pointing at a macros folder, laid out as the one given to the constructor.
+     */
+    public void loadMacros(final File macrosFolder) {
+        if (!macrosFolder.isDirectory()) {
+            throw new RuntimeException(String.format("Macro folder %s does not exist", macrosFolder.getPath()));
+        }
+        copyFileToContainer(MountableFile.forHostPath(macrosFolder.toPath()), WARP10_MACROS_PATH);
+        awaitMacros();
+    }
+
+    /**
+     * Creates or replaces a macro in the running container and waits for Warp10 to load it.
+     *
+     * @param name    name of the macro, e.g. "me/test" for @me/test.
+     * @param content WarpScript code of the macro, a single {@code <% ... %>} block.
+     */
+    public void replaceMacro(final String name, final String content) {
+        copyFileToContainer(Transferable.of(content), WARP10_MACROS_PATH + name + ".mc2");
+        awaitMacros();
+    }
+
+    /**
+     * Waits for the next scan of the macros folder, detected by a sync macro returning a fresh value.
+     * As the whole folder is loaded during a scan, the macros copied before it are loaded too.
+     */
+    private void awaitMacros() {
+        String nonce = UUID.randomUUID().toString();
+        copyFileToContainer(Transferable.of("<% '" + nonce + "' %>"), WARP10_MACROS_PATH + WARP10_MACROS_SYNC_MACRO + ".mc2");
+
+        long deadline = System.nanoTime() + WARP10_MACROS_LOAD_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try (Response response = exec("@" + WARP10_MACROS_SYNC_MACRO)) {
+                if (response.isSuccessful() && response.body() != null && response.body().string().contains(nonce)) {
+                    return;
+                }
+            } catch (IOException e) {
+                logger().debug("Waiting for macros: {}", e.getMessage());
+            }
+
+            try {
+                Thread.sleep(WARP10_MACROS_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+        throw new RuntimeException("Timed out waiting for Warp10 to load macros, see withMacroRefresh()");
+    }
+
+    private Response exec(final String script) throws IOException {
+        Request request = new Request.Builder()
+            .url(new URL(WARP10_PROTOCOL, getHTTPHost(), getHTTPPort(), WARP10_EXEC_API))
+            .post(RequestBody.create(script, MediaType.get("text/plain")))
+            .build();
+        return HTTP_CLIENT.newCall(request).execute();
     }
 
     public String getReadToken() {
-        if (WARP10_TOKENS == null) {
+        Warp10Tokens tokens = WARP10_TOKENS;
+        if (tokens == null) {
             return null;
         }
 
-        return WARP10_TOKENS.getReadToken().getToken();
+        return tokens.getReadToken().getToken();
     }
 
     public String getWriteToken() {
-        if (WARP10_TOKENS == null) {
+        Warp10Tokens tokens = WARP10_TOKENS;
+        if (tokens == null) {
+            return null;
+        }
+
+        return tokens.getWriteToken().getToken();
+    }
+
+    /**
+     * Gets the HTTP client of the started container, created once and shared by all its callers.
+     *
+     * @return the client, using the container's read and write tokens.
+     */
+    public synchronized Warp10Client client() {
+        if (WARP10_CLIENT == null) {
+            if (WARP10_TOKENS == null) {
+                throw new IllegalStateException("Warp10 container is not started");
+            }
+            WARP10_CLIENT = new Warp10Client(getProtocol() + "://" + getHTTPHostAddress(), getReadToken(), getWriteToken());
+        }
+        return WARP10_CLIENT;
+    }
+
+    /**
+     * Returns the profiler of this container, executing WarpScript and collecting its cost per script or macro, e.g.
+     * to assert in a test that a macro stays below a number of operations.
+     *
+     * @return the profiler, shared by the callers of this container.
+     */
+    public synchronized Warp10ExecProfiler profiler() {
+        if (WARP10_PROFILER == null) {
+            WARP10_PROFILER = new Warp10ExecProfiler(client());
+        }
+        return WARP10_PROFILER;
+    }
+
+    /**
+     * Sets how often Warp10 readiness is probed until its started marker shows up in the log.
+     *
+     * @param pollInterval delay between two probes of the exec endpoint.
+     * @return this container.
+     */
+    public Warp10Container withReadinessPollInterval(final Duration pollInterval) {
+        if (getWaitStrategy() instanceof Warp10WaitStrategy) {
+            ((Warp10WaitStrategy) getWaitStrategy()).withPollInterval(pollInterval);
+        }
+        return self();
+    }
+
+    /**
+     * @return the timings of the readiness stages, or null if the container is not started or uses another wait strategy
+     */
+    public Warp10WaitStrategy.Report getReadinessReport() {
+        return getWaitStrategy() instanceof Warp10WaitStrategy ? ((Warp10WaitStrategy) getWaitStrategy()).getReport() : null;
+    }
+
+    /**
+     * @param id identifier of the token, case insensitive.
+     * @return the token, or null if there is no token with this id
+     */
+    public String getToken(final String id) {
+        Warp10Tokens tokens = WARP10_TOKENS;
+        if (tokens == null) {
             return null;
         }
 
-        return WARP10_TOKENS.getWriteToken().getToken();
+        TokenInfo token = tokens.getToken(id);
+        return token != null ? token.getToken() : null;
+    }
+
+    /**
+     * @return all the generated tokens, or null if the container is not started
+     */
+    public Warp10Tokens getTokens() {
+        return WARP10_TOKENS;
     }
 
     public String getHTTPHost() {
@@ -269,7 +1320,8 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
      * @return The AES token key as a hex string (64 characters = 32 bytes), or null if not available
      */
     public String getAesTokenKey() {
-        return WARP10_CRYPTO_KEYS != null ? WARP10_CRYPTO_KEYS.getAesTokenKey() : null;
+        Warp10CryptoKeys cryptoKeys = WARP10_CRYPTO_KEYS;
+        return cryptoKeys != null ? cryptoKeys.getAesTokenKey() : null;
     }
 
     /**
@@ -278,7 +1330,8 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
      * @return The SipHash app key as a hex string (32 characters = 16 bytes), or null if not available
      */
     public String getSipHashApp() {
-        return WARP10_CRYPTO_KEYS != null ? WARP10_CRYPTO_KEYS.getSipHashApp() : null;
+        Warp10CryptoKeys cryptoKeys = WARP10_CRYPTO_KEYS;
+        return cryptoKeys != null ? cryptoKeys.getSipHashApp() : null;
     }
 
     /**
@@ -287,6 +1340,7 @@ public class Warp10Container extends GenericContainer<Warp10Container> {
      * @return The SipHash token key as a hex string (32 characters = 16 bytes), or null if not available
      */
     public String getSipHashToken() {
-        return WARP10_CRYPTO_KEYS != null ? WARP10_CRYPTO_KEYS.getSipHashToken() : null;
+        Warp10CryptoKeys cryptoKeys = WARP10_CRYPTO_KEYS;
+        return cryptoKeys != null ? cryptoKeys.getSipHashToken() : null;
     }
 }
@@ -0,0 +1,104 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.testcontainers.lifecycle.Startable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Starts several independent Warp10 containers in parallel, e.g. for different image tags or config variants.
+ * <p>
+ * Containers are started on virtual threads when the JVM supports them, on a bounded pool otherwise (or when a
+ * parallelism is set). Starting fails as soon as one of the containers fails, the others are then stopped.
+ */
+public class Warp10ContainerGroup implements Startable {
+    private final List<Warp10Container> containers;
+    private Integer parallelism = null;
+
+    public Warp10ContainerGroup(final List<Warp10Container> containers) {
+        this.containers = List.copyOf(containers);
+    }
+
+    public static Warp10ContainerGroup of(final Warp10Container... containers) {
+        return new Warp10ContainerGroup(List.of(containers));
+    }
+
+    /**
+     * @param parallelism maximum number of containers starting at the same time.
+     * @return this group.
+     */
+    public Warp10ContainerGroup withParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public List<Warp10Container> getContainers() {
+        return containers;
+    }
+
+    /**
+     * Starts all the containers in parallel.
+     *
+     * @return a future completed once all the containers are started with their tokens, or exceptionally as soon as
+     * one of them fails
+     */
+    public CompletableFuture<List<Warp10Container>> startAsync() {
+        ExecutorService executor = parallelism != null
+            ? Warp10Executors.newBoundedExecutor(parallelism, "warp10-group-start")
+            : Warp10Executors.newVirtualThreadPerTaskExecutor()
+                .orElseGet(() -> Warp10Executors.newBoundedExecutor(Math.max(containers.size(), 1), "warp10-group-start"));
+
+        CompletableFuture<List<Warp10Container>> result = new CompletableFuture<>();
+        List<CompletableFuture<Warp10Container>> starts = new ArrayList<>();
+        for (Warp10Container container : containers) {
+            CompletableFuture<Warp10Container> start = container.startAsync(executor);
+            start.whenComplete((started, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                }
+            });
+            starts.add(start);
+        }
+        CompletableFuture.allOf(starts.toArray(new CompletableFuture<?>[0]))
+            .whenComplete((ignored, error) -> {
+                executor.shutdown();
+                if (error == null) {
+                    result.complete(containers);
+                }
+            });
+
+        result.whenComplete((started, error) -> {
+            if (error != null) {
+                // Stop each container once its own start completes, including the ones still starting
+                for (int i = 0; i < containers.size(); i++) {
+                    Warp10Container container = containers.get(i);
+                    starts.get(i).whenComplete((ignored, startError) -> container.stop());
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Starts all the containers in parallel and waits for them.
+     */
+    @Override
+    public void start() {
+        try {
+            startAsync().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    @Override
+    public void stop() {
+        containers.parallelStream().forEach(Warp10Container::stop);
+    }
+}
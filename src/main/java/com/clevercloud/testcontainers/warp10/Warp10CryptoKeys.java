@@ -1,5 +1,7 @@
 package com.clevercloud.testcontainers.warp10;
 
+import java.security.SecureRandom;
+
 // Represents the cryptographic keys used by Warp10 for token generation.
 public class Warp10CryptoKeys {
     private final String aesTokenKey;
@@ -17,6 +19,26 @@ public class Warp10CryptoKeys {
         this.sipHashToken = sipHashToken;
     }
 
+    /**
+     * Generates random keys, the same way Warp10 does at first boot.
+     *
+     * @return new valid crypto keys
+     */
+    public static Warp10CryptoKeys generate() {
+        SecureRandom random = new SecureRandom();
+        return new Warp10CryptoKeys(randomHex(random, 32), randomHex(random, 16), randomHex(random, 16));
+    }
+
+    private static String randomHex(SecureRandom random, int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        StringBuilder sb = new StringBuilder(size * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
     public String getAesTokenKey() {
         return aesTokenKey;
     }
@@ -0,0 +1,68 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Progress of the datasets ingested at startup, see {@link Warp10Container#withDataset(Path...)}.
+ */
+public class Warp10DatasetProgress {
+    private final Path file;
+    private final int filesDone;
+    private final int filesTotal;
+    private final long bytesDone;
+    private final long bytesTotal;
+    private final Duration elapsed;
+
+    public Warp10DatasetProgress(Path file, int filesDone, int filesTotal, long bytesDone, long bytesTotal, Duration elapsed) {
+        this.file = file;
+        this.filesDone = filesDone;
+        this.filesTotal = filesTotal;
+        this.bytesDone = bytesDone;
+        this.bytesTotal = bytesTotal;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return the file which was just ingested
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    public int getFilesDone() {
+        return filesDone;
+    }
+
+    public int getFilesTotal() {
+        return filesTotal;
+    }
+
+    /**
+     * @return the size of the ingested files, as stored on the host (compressed for gzip files)
+     */
+    public long getBytesDone() {
+        return bytesDone;
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    /**
+     * @return the time since the ingestion started
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getBytesPerSecond() {
+        return elapsed.isZero() ? 0.0 : bytesDone / (elapsed.toNanos() / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d files, %.1f/%.1f MB in %s (%.1f MB/s), last %s",
+            filesDone, filesTotal, bytesDone / 1e6, bytesTotal / 1e6, elapsed, getBytesPerSecond() / 1e6, file.getFileName());
+    }
+}
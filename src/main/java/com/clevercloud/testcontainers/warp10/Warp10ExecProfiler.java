@@ -0,0 +1,207 @@
+package com.clevercloud.testcontainers.warp10;
+
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Executes WarpScript and collects its cost per script or macro, see {@link Warp10Container#profiler()}.
+ * <p>
+ * Warp10 reports the cost of each execution in the X-Warp10-Elapsed, X-Warp10-Ops and X-Warp10-Fetched response
+ * headers, they are recorded into the {@link Warp10ExecStats} of the execution name. With function profiling, scripts
+ * run on a profiling stack (PSTACK) and the per-function timings (STACKPSTATS) are recorded too. Instances are thread
+ * safe.
+ */
+public class Warp10ExecProfiler {
+    static final String ELAPSED_HEADER = "X-Warp10-Elapsed";
+    static final String OPS_HEADER = "X-Warp10-Ops";
+    static final String FETCHED_HEADER = "X-Warp10-Fetched";
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+        .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+        .build();
+
+    private final Warp10Client client;
+    private final Map<String, Warp10ExecStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean functionProfiling = false;
+
+    Warp10ExecProfiler(Warp10Client client) {
+        this.client = client;
+    }
+
+    /**
+     * @param functionProfiling whether scripts run on a profiling stack, recording the time spent in each function.
+     *                          Profiling adds its own overhead to the elapsed times.
+     * @return this profiler.
+     */
+    public Warp10ExecProfiler withFunctionProfiling(boolean functionProfiling) {
+        this.functionProfiling = functionProfiling;
+        return this;
+    }
+
+    /**
+     * Executes a script, its statistics being recorded under the script itself.
+     *
+     * @param script the WarpScript code.
+     * @return the result of the execution
+     */
+    public Result exec(String script) throws IOException {
+        return exec(script, script);
+    }
+
+    /**
+     * Executes a script.
+     *
+     * @param name   name the statistics are recorded under.
+     * @param script the WarpScript code.
+     * @return the result of the execution
+     * @throws IOException if the request or the script fails, which is counted as an error.
+     */
+    public Result exec(String name, String script) throws IOException {
+        Warp10ExecStats execStats = stats.computeIfAbsent(Objects.requireNonNull(name, "name"), Warp10ExecStats::new);
+        String body = functionProfiling ? "PSTACK\n" + script + "\nSTACKPSTATS" : script;
+        Request request = new Request.Builder()
+            .url(client.getBaseUrl() + Warp10Client.EXEC_API)
+            .post(RequestBody.create(body, Warp10Client.TEXT))
+            .build();
+
+        try (Response response = client.httpClient().newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Warp10 exec of " + name + " failed with code " + response.code() + ": " + response.header(Warp10Client.ERROR_MESSAGE_HEADER));
+            }
+            String stack = response.body().string();
+            Map<String, Warp10ExecStats.Function> functions = Collections.emptyMap();
+            if (functionProfiling) {
+                ArrayNode nodes = (ArrayNode) MAPPER.readTree(stack);
+                // STACKPSTATS left the statistics on top of the stack, which is the first element of the response
+                functions = functions(nodes.remove(0));
+                stack = MAPPER.writeValueAsString(nodes);
+            }
+            Result result = new Result(stack, header(response, ELAPSED_HEADER), header(response, OPS_HEADER), header(response, FETCHED_HEADER), functions);
+            execStats.record(result.elapsed.toNanos(), result.ops, result.fetched, functions);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            execStats.recordError();
+            throw e;
+        }
+    }
+
+    /**
+     * Calls a macro, its statistics being recorded under the macro name.
+     *
+     * @param macro     name of the macro, without the @.
+     * @param arguments WarpScript pushing the arguments of the macro, e.g. {@code [ 'token' 'class' {} ]}.
+     * @return the result of the execution
+     */
+    public Result macro(String macro, String arguments) throws IOException {
+        return exec("@" + macro, arguments + " @" + macro);
+    }
+
+    /**
+     * @param name name of the script or macro (prefixed with @).
+     * @return its statistics, or null if it never ran
+     */
+    public Warp10ExecStats getStats(String name) {
+        return stats.get(name);
+    }
+
+    /**
+     * @return the statistics of all the executions, by name
+     */
+    public Map<String, Warp10ExecStats> getStats() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(stats));
+    }
+
+    public void clear() {
+        stats.clear();
+    }
+
+    /**
+     * @return one line per script or macro, the most expensive ones in ops first
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        stats.values().stream()
+            .sorted((a, b) -> Long.compare(b.getOps(), a.getOps()))
+            .forEach(execStats -> sb.append(execStats).append('\n'));
+        return sb.toString();
+    }
+
+    private static long header(Response response, String name) {
+        String value = response.header(name);
+        return value == null ? 0L : Long.parseLong(value.trim());
+    }
+
+    /**
+     * Reads the STACKPSTATS map, each function having its call count and total time in nanoseconds.
+     */
+    private static Map<String, Warp10ExecStats.Function> functions(JsonNode pstats) throws IOException {
+        if (pstats == null || !pstats.isObject()) {
+            throw new IOException("Expected the profiling statistics on top of the stack, got " + pstats);
+        }
+        Map<String, Warp10ExecStats.Function> functions = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> field : pstats.properties()) {
+            JsonNode values = field.getValue();
+            functions.put(field.getKey(), new Warp10ExecStats.Function(values.path(0).asLong(), Duration.ofNanos(values.path(1).asLong())));
+        }
+        return functions;
+    }
+
+    /**
+     * Outcome of an execution.
+     */
+    public static class Result {
+        private final String stack;
+        private final Duration elapsed;
+        private final long ops;
+        private final long fetched;
+        private final Map<String, Warp10ExecStats.Function> functions;
+
+        Result(String stack, long elapsedNanos, long ops, long fetched, Map<String, Warp10ExecStats.Function> functions) {
+            this.stack = stack;
+            this.elapsed = Duration.ofNanos(elapsedNanos);
+            this.ops = ops;
+            this.fetched = fetched;
+            this.functions = functions;
+        }
+
+        /**
+         * @return the stack left by the script as a JSON array, its top first
+         */
+        public String getStack() {
+            return stack;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public long getOps() {
+            return ops;
+        }
+
+        public long getFetched() {
+            return fetched;
+        }
+
+        /**
+         * @return the timings of each function, empty without function profiling
+         */
+        public Map<String, Warp10ExecStats.Function> getFunctions() {
+            return functions;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.clevercloud.testcontainers.warp10;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the series of an /api/v0/exec JSON stack with Jackson's streaming parser.
+ * <p>
+ * Warp10 writes a series as {@code {"c":class,"l":labels,"a":attributes,"la":lastActivity,"v":points}}, an object
+ * whose first field is "c" being taken for a series. Points are arrays of 2 to 5 elements: the timestamp, an optional
+ * latitude and longitude, an optional elevation, and the value.
+ */
+final class Warp10ExecReader extends Warp10SeriesReader {
+    // Warp10 writes NaN and Infinity unquoted
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+        .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+        .build();
+    private static final int MAX_POINT_ELEMENTS = 5;
+
+    private enum State {
+        SCANNING,
+        POINTS,
+        NO_POINTS,
+        DONE
+    }
+
+    private final JsonParser parser;
+    private State state = State.SCANNING;
+
+    // Elements of the point being read
+    private final JsonToken[] tokens = new JsonToken[MAX_POINT_ELEMENTS];
+    private final long[] longs = new long[MAX_POINT_ELEMENTS];
+    private final double[] doubles = new double[MAX_POINT_ELEMENTS];
+
+    Warp10ExecReader(InputStream json, Closeable resource) throws IOException {
+        super(resource);
+        this.parser = JSON_FACTORY.createParser(json);
+    }
+
+    @Override
+    public boolean nextSeries() throws IOException {
+        if (state == State.POINTS) {
+            while (nextPoint()) {
+                // Skip the remaining points
+            }
+        }
+        if (state == State.DONE) {
+            return false;
+        }
+
+        JsonToken token = parser.nextToken();
+        while (token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+                if (token == JsonToken.FIELD_NAME && "c".equals(parser.currentName())) {
+                    token = parser.nextToken();
+                    if (token == JsonToken.VALUE_STRING) {
+                        readHeader(parser.getText());
+                        return true;
+                    }
+                }
+                // Not a series, look for series inside
+                continue;
+            }
+            token = parser.nextToken();
+        }
+
+        state = State.DONE;
+        return false;
+    }
+
+    private void readHeader(String className) throws IOException {
+        Map<String, String> labels = Map.of();
+        Map<String, String> attributes = Map.of();
+
+        JsonToken token = parser.nextToken();
+        while (token == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            token = parser.nextToken();
+            if ("l".equals(field) && token == JsonToken.START_OBJECT) {
+                labels = readStringMap();
+            } else if ("a".equals(field) && token == JsonToken.START_OBJECT) {
+                attributes = readStringMap();
+            } else if ("v".equals(field) && token == JsonToken.START_ARRAY) {
+                startSeries(className, labels, attributes);
+                state = State.POINTS;
+                return;
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+
+        startSeries(className, labels, attributes);
+        state = State.NO_POINTS;
+    }
+
+    private Map<String, String> readStringMap() throws IOException {
+        Map<String, String> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            parser.nextToken();
+            map.put(key, parser.getText());
+        }
+        return map.isEmpty() ? Map.of() : Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public boolean nextPoint() throws IOException {
+        if (state != State.POINTS) {
+            return false;
+        }
+
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_ARRAY) {
+            // End of the points, skip the fields after them
+            token = parser.nextToken();
+            while (token == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                parser.skipChildren();
+                token = parser.nextToken();
+            }
+            state = State.SCANNING;
+            return false;
+        }
+
+        int count = 0;
+        token = parser.nextToken();
+        while (token != JsonToken.END_ARRAY) {
+            if (token == null || count == MAX_POINT_ELEMENTS) {
+                throw new IOException("Invalid point in series " + className + labels + " at " + parser.currentLocation());
+            }
+            tokens[count] = token;
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                longs[count] = parser.getLongValue();
+                doubles[count] = longs[count];
+            } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                doubles[count] = parser.getDoubleValue();
+            } else if (token == JsonToken.VALUE_STRING) {
+                stringValue = parser.getText();
+            } else if (token != JsonToken.VALUE_TRUE && token != JsonToken.VALUE_FALSE) {
+                throw new IOException("Unexpected " + token + " in series " + className + labels + " at " + parser.currentLocation());
+            }
+            count++;
+            token = parser.nextToken();
+        }
+        if (count < 2) {
+            throw new IOException("Invalid point in series " + className + labels + " at " + parser.currentLocation());
+        }
+
+        String value = stringValue;
+        startPoint(longs[0]);
+        switch (count) {
+            case 3:
+                hasElevation = true;
+                elevation = longs[1];
+                break;
+            case 4:
+                hasLocation = true;
+                latitude = doubles[1];
+                longitude = doubles[2];
+                break;
+            case 5:
+                hasLocation = true;
+                latitude = doubles[1];
+                longitude = doubles[2];
+                hasElevation = true;
+                elevation = longs[3];
+                break;
+            default:
+                break;
+        }
+
+        int last = count - 1;
+        switch (tokens[last]) {
+            case VALUE_NUMBER_INT:
+                type = Warp10GTS.Type.LONG;
+                longValue = longs[last];
+                break;
+            case VALUE_NUMBER_FLOAT:
+                type = Warp10GTS.Type.DOUBLE;
+                doubleValue = doubles[last];
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                type = Warp10GTS.Type.BOOLEAN;
+                booleanValue = tokens[last] == JsonToken.VALUE_TRUE;
+                break;
+            default:
+                type = Warp10GTS.Type.STRING;
+                stringValue = value;
+                break;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            parser.close();
+        } finally {
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cost of the executions of a script or macro, as reported by Warp10, see {@link Warp10ExecProfiler}.
+ */
+public class Warp10ExecStats {
+    private final String name;
+    private final Warp10LatencyHistogram elapsed = new Warp10LatencyHistogram();
+    private long errors = 0L;
+    private long ops = 0L;
+    private long maxOps = 0L;
+    private long fetched = 0L;
+    private long maxFetched = 0L;
+    private final Map<String, Function> functions = new TreeMap<>();
+
+    Warp10ExecStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long elapsedNanos, long ops, long fetched, Map<String, Function> functions) {
+        this.elapsed.record(elapsedNanos);
+        this.ops += ops;
+        this.maxOps = Math.max(this.maxOps, ops);
+        this.fetched += fetched;
+        this.maxFetched = Math.max(this.maxFetched, fetched);
+        functions.forEach((function, stats) -> this.functions.merge(function, stats, Function::plus));
+    }
+
+    synchronized void recordError() {
+        errors++;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of successful executions
+     */
+    public long getCalls() {
+        return elapsed.getCount();
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the execution times reported by Warp10 (X-Warp10-Elapsed), without the HTTP round trip
+     */
+    public Warp10LatencyHistogram getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return the total number of WarpScript operations (X-Warp10-Ops)
+     */
+    public synchronized long getOps() {
+        return ops;
+    }
+
+    public synchronized long getMaxOps() {
+        return maxOps;
+    }
+
+    public synchronized double getMeanOps() {
+        long calls = getCalls();
+        return calls == 0 ? 0.0 : (double) ops / calls;
+    }
+
+    /**
+     * @return the total number of datapoints fetched (X-Warp10-Fetched)
+     */
+    public synchronized long getFetched() {
+        return fetched;
+    }
+
+    public synchronized long getMaxFetched() {
+        return maxFetched;
+    }
+
+    /**
+     * @return the timings of each WarpScript function, when the profiler runs with function profiling
+     */
+    public synchronized Map<String, Function> getFunctions() {
+        return Collections.unmodifiableMap(new TreeMap<>(functions));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d calls, %d errors, elapsed p50=%s p99=%s max=%s, ops mean=%.0f max=%d, fetched max=%d",
+            name, getCalls(), errors, elapsed.getPercentile(50), elapsed.getPercentile(99), elapsed.getMax(),
+            getMeanOps(), maxOps, maxFetched);
+    }
+
+    /**
+     * Calls and cumulated time of a WarpScript function.
+     */
+    public static class Function {
+        private final long calls;
+        private final Duration time;
+
+        Function(long calls, Duration time) {
+            this.calls = calls;
+            this.time = time;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public Duration getTime() {
+            return time;
+        }
+
+        Function plus(Function other) {
+            return new Function(calls + other.calls, time.plus(other.time));
+        }
+
+        @Override
+        public String toString() {
+            return calls + " calls in " + time;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors used to run container operations concurrently.
+ */
+final class Warp10Executors {
+    private Warp10Executors() {
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, when the JVM supports them (Java 21+)
+     */
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param threads maximum number of tasks running at the same time.
+     * @param name    name of the threads.
+     * @return an executor running tasks on a bounded number of daemon threads
+     */
+    static ExecutorService newBoundedExecutor(final int threads, final String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
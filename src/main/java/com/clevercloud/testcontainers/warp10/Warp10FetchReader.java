@@ -0,0 +1,355 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the text output of /api/v0/fetch, lines of the GTS input format:
+ * {@code TS/LAT:LON/ELEV class{labels}{attributes} value}, followed by {@code =TS/LAT:LON/ELEV value} lines for the
+ * next points of the same series.
+ * <p>
+ * Lines are parsed in place in a reusable buffer. Strings are only created for selectors, string values and the
+ * doubles which can't be parsed exactly on the fast path.
+ */
+final class Warp10FetchReader extends Warp10SeriesReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+
+    // Current line
+    private int lineStart;
+    private int lineEnd;
+    private int cursor;
+
+    private boolean pendingLine = false;
+    private boolean pendingPoint = false;
+    private boolean started = false;
+
+    Warp10FetchReader(InputStream in, Closeable resource) {
+        super(resource);
+        this.in = in;
+    }
+
+    @Override
+    public boolean nextSeries() throws IOException {
+        pendingPoint = false;
+        while (!pendingLine) {
+            if (!readLine()) {
+                return false;
+            }
+            if (buffer[lineStart] != '=') {
+                pendingLine = true;
+            } else if (!started) {
+                throw new IOException("Continuation line without a series: " + line());
+            }
+        }
+        pendingLine = false;
+        started = true;
+
+        cursor = lineStart;
+        readPosition();
+        readSelector();
+        readValue();
+        pendingPoint = true;
+        return true;
+    }
+
+    @Override
+    public boolean nextPoint() throws IOException {
+        if (pendingPoint) {
+            pendingPoint = false;
+            return true;
+        }
+        if (pendingLine || !started || !readLine()) {
+            return false;
+        }
+        if (buffer[lineStart] != '=') {
+            pendingLine = true;
+            return false;
+        }
+
+        cursor = lineStart + 1;
+        readPosition();
+        readValue();
+        return true;
+    }
+
+    /**
+     * Reads the next non empty line, without its line terminator.
+     */
+    private boolean readLine() throws IOException {
+        while (true) {
+            int end = indexOf((byte) '\n', position, limit);
+            if (end < 0 && !eof) {
+                fill();
+                continue;
+            }
+            if (end < 0 && position == limit) {
+                return false;
+            }
+
+            lineStart = position;
+            lineEnd = end < 0 ? limit : end;
+            position = end < 0 ? limit : end + 1;
+            if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                return true;
+            }
+        }
+    }
+
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            // A line longer than the buffer
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void readPosition() throws IOException {
+        int slash = indexOf((byte) '/', cursor, lineEnd);
+        if (slash < 0) {
+            throw new IOException("Invalid line: " + line());
+        }
+        startPoint(parseLong(cursor, slash));
+
+        cursor = slash + 1;
+        int nextSlash = indexOf((byte) '/', cursor, lineEnd);
+        if (nextSlash < 0) {
+            throw new IOException("Invalid line: " + line());
+        }
+        if (nextSlash > cursor) {
+            int colon = indexOf((byte) ':', cursor, nextSlash);
+            if (colon < 0) {
+                throw new IOException("Invalid location: " + line());
+            }
+            hasLocation = true;
+            latitude = parseDouble(cursor, colon);
+            longitude = parseDouble(colon + 1, nextSlash);
+        }
+
+        cursor = nextSlash + 1;
+        int space = indexOf((byte) ' ', cursor, lineEnd);
+        if (space < 0) {
+            throw new IOException("Invalid line: " + line());
+        }
+        if (space > cursor) {
+            hasElevation = true;
+            elevation = parseLong(cursor, space);
+        }
+        cursor = space + 1;
+    }
+
+    private void readSelector() throws IOException {
+        int brace = indexOf((byte) '{', cursor, lineEnd);
+        if (brace < 0) {
+            throw new IOException("Invalid selector: " + line());
+        }
+        String className = decode(cursor, brace);
+
+        cursor = brace + 1;
+        Map<String, String> labels = readMap();
+        Map<String, String> attributes = Map.of();
+        if (cursor < lineEnd && buffer[cursor] == '{') {
+            cursor++;
+            attributes = readMap();
+        }
+        if (cursor >= lineEnd || buffer[cursor] != ' ') {
+            throw new IOException("Invalid selector: " + line());
+        }
+        cursor++;
+        startSeries(className, labels, attributes);
+    }
+
+    private Map<String, String> readMap() throws IOException {
+        int end = indexOf((byte) '}', cursor, lineEnd);
+        if (end < 0) {
+            throw new IOException("Invalid selector: " + line());
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        int from = cursor;
+        while (from < end) {
+            int comma = indexOf((byte) ',', from, end);
+            int to = comma < 0 ? end : comma;
+            int equals = indexOf((byte) '=', from, to);
+            if (equals < 0) {
+                throw new IOException("Invalid selector: " + line());
+            }
+            map.put(decode(from, equals), decode(equals + 1, to));
+            from = to + 1;
+        }
+        cursor = end + 1;
+        return map.isEmpty() ? Map.of() : Collections.unmodifiableMap(map);
+    }
+
+    private void readValue() throws IOException {
+        if (cursor >= lineEnd) {
+            throw new IOException("Missing value: " + line());
+        }
+        byte first = buffer[cursor];
+        int length = lineEnd - cursor;
+        if (first == '\'') {
+            if (length < 2 || buffer[lineEnd - 1] != '\'') {
+                throw new IOException("Invalid string value: " + line());
+            }
+            type = Warp10GTS.Type.STRING;
+            stringValue = decode(cursor + 1, lineEnd - 1);
+        } else if (first == 'T' || first == 't') {
+            type = Warp10GTS.Type.BOOLEAN;
+            booleanValue = true;
+        } else if (first == 'F' || first == 'f') {
+            type = Warp10GTS.Type.BOOLEAN;
+            booleanValue = false;
+        } else if (isDouble(cursor, lineEnd)) {
+            type = Warp10GTS.Type.DOUBLE;
+            doubleValue = parseDouble(cursor, lineEnd);
+        } else {
+            type = Warp10GTS.Type.LONG;
+            longValue = parseLong(cursor, lineEnd);
+        }
+    }
+
+    private boolean isDouble(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b == '.' || b == 'e' || b == 'E' || b == 'N' || b == 'I') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long parseLong(int from, int to) throws IOException {
+        boolean negative = from < to && buffer[from] == '-';
+        int i = negative || (from < to && buffer[from] == '+') ? from + 1 : from;
+        if (i == to || to - i > 18) {
+            // Empty, or may overflow
+            return parseLongSlow(from, to);
+        }
+        long value = 0L;
+        for (; i < to; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Invalid number: " + ascii(from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private long parseLongSlow(int from, int to) throws IOException {
+        try {
+            return Long.parseLong(ascii(from, to));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + ascii(from, to), e);
+        }
+    }
+
+    /**
+     * Parses plain decimals exactly without allocating: a mantissa of at most 15 digits is exactly represented as a
+     * double, as are the powers of ten up to 1e22, so a single division is correctly rounded.
+     */
+    private double parseDouble(int from, int to) throws IOException {
+        boolean negative = from < to && buffer[from] == '-';
+        int start = negative || (from < to && buffer[from] == '+') ? from + 1 : from;
+        int i = start;
+        long mantissa = 0L;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < to; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                break;
+            }
+        }
+        if (i < to || digits > MAX_FAST_DIGITS || decimals >= POWERS_OF_TEN.length || i == start) {
+            try {
+                return Double.parseDouble(ascii(from, to));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid number: " + ascii(from, to), e);
+            }
+        }
+        double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decodes a percent-encoded UTF-8 string.
+     */
+    private String decode(int from, int to) throws IOException {
+        if (indexOf((byte) '%', from, to) < 0) {
+            return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] decoded = new byte[to - from];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b == '%' && i + 2 < to) {
+                int high = Character.digit(buffer[i + 1], 16);
+                int low = Character.digit(buffer[i + 2], 16);
+                if (high < 0 || low < 0) {
+                    throw new IOException("Invalid percent encoding: " + line());
+                }
+                decoded[length++] = (byte) ((high << 4) | low);
+                i += 2;
+            } else {
+                decoded[length++] = b;
+            }
+        }
+        return new String(decoded, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String ascii(int from, int to) {
+        return new String(buffer, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+    private String line() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,254 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A Geo Time Series read from Warp10, stored as primitive columns.
+ * <p>
+ * Only the value column matching {@link #getType()} is set. Locations and elevations are null when no point has one,
+ * otherwise points without one hold {@link Double#NaN} and {@link #NO_ELEVATION}.
+ */
+public final class Warp10GTS {
+    public enum Type {
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        STRING
+    }
+
+    public static final long NO_ELEVATION = Long.MIN_VALUE;
+
+    private final String className;
+    private final Map<String, String> labels;
+    private final Map<String, String> attributes;
+    private final Type type;
+    private final long[] timestamps;
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final boolean[] booleanValues;
+    private final String[] stringValues;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] elevations;
+
+    private Warp10GTS(Builder builder) {
+        int size = builder.size;
+        this.className = builder.className;
+        this.labels = builder.labels;
+        this.attributes = builder.attributes;
+        this.type = builder.type;
+        this.timestamps = Arrays.copyOf(builder.timestamps, size);
+        this.longValues = builder.longValues != null ? Arrays.copyOf(builder.longValues, size) : null;
+        this.doubleValues = builder.doubleValues != null ? Arrays.copyOf(builder.doubleValues, size) : null;
+        this.booleanValues = builder.booleanValues != null ? Arrays.copyOf(builder.booleanValues, size) : null;
+        this.stringValues = builder.stringValues != null ? Arrays.copyOf(builder.stringValues, size) : null;
+        this.latitudes = builder.latitudes != null ? Arrays.copyOf(builder.latitudes, size) : null;
+        this.longitudes = builder.longitudes != null ? Arrays.copyOf(builder.longitudes, size) : null;
+        this.elevations = builder.elevations != null ? Arrays.copyOf(builder.elevations, size) : null;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return the type of the values, or null if the series has no point
+     */
+    public Type getType() {
+        return type;
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public long[] getLongValues() {
+        return longValues;
+    }
+
+    public double[] getDoubleValues() {
+        return doubleValues;
+    }
+
+    public boolean[] getBooleanValues() {
+        return booleanValues;
+    }
+
+    public String[] getStringValues() {
+        return stringValues;
+    }
+
+    public double[] getLatitudes() {
+        return latitudes;
+    }
+
+    public double[] getLongitudes() {
+        return longitudes;
+    }
+
+    public long[] getElevations() {
+        return elevations;
+    }
+
+    @Override
+    public String toString() {
+        return "Warp10GTS{" +
+            "className='" + className + '\'' +
+            ", labels=" + labels +
+            ", attributes=" + attributes +
+            ", type=" + type +
+            ", size=" + size() +
+            '}';
+    }
+
+    /**
+     * Accumulates the points of a series read by a {@link Warp10SeriesReader}.
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final String className;
+        private final Map<String, String> labels;
+        private final Map<String, String> attributes;
+        private Type type = null;
+        private int size = 0;
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private long[] longValues = null;
+        private double[] doubleValues = null;
+        private boolean[] booleanValues = null;
+        private String[] stringValues = null;
+        private double[] latitudes = null;
+        private double[] longitudes = null;
+        private long[] elevations = null;
+
+        Builder(String className, Map<String, String> labels, Map<String, String> attributes) {
+            this.className = className;
+            this.labels = labels;
+            this.attributes = attributes;
+        }
+
+        /**
+         * Appends the current point of the reader.
+         */
+        void add(Warp10SeriesReader reader) {
+            if (size == timestamps.length) {
+                grow();
+            }
+            timestamps[size] = reader.getTimestamp();
+            addValue(reader);
+            if (reader.hasLocation()) {
+                if (latitudes == null) {
+                    latitudes = filled(new double[timestamps.length], Double.NaN);
+                    longitudes = filled(new double[timestamps.length], Double.NaN);
+                }
+                latitudes[size] = reader.getLatitude();
+                longitudes[size] = reader.getLongitude();
+            }
+            if (reader.hasElevation()) {
+                if (elevations == null) {
+                    elevations = new long[timestamps.length];
+                    Arrays.fill(elevations, NO_ELEVATION);
+                }
+                elevations[size] = reader.getElevation();
+            }
+            size++;
+        }
+
+        private void addValue(Warp10SeriesReader reader) {
+            Type valueType = reader.getType();
+            if (type == null) {
+                type = valueType;
+                switch (type) {
+                    case LONG:
+                        longValues = new long[timestamps.length];
+                        break;
+                    case DOUBLE:
+                        doubleValues = new double[timestamps.length];
+                        break;
+                    case BOOLEAN:
+                        booleanValues = new boolean[timestamps.length];
+                        break;
+                    case STRING:
+                        stringValues = new String[timestamps.length];
+                        break;
+                }
+            } else if (type == Type.LONG && valueType == Type.DOUBLE) {
+                // A double among longs, e.g. a long series converted by TODOUBLE while being written
+                doubleValues = new double[timestamps.length];
+                for (int i = 0; i < size; i++) {
+                    doubleValues[i] = longValues[i];
+                }
+                longValues = null;
+                type = Type.DOUBLE;
+            } else if (type != valueType && !(type == Type.DOUBLE && valueType == Type.LONG)) {
+                throw new IllegalStateException("Series " + className + labels + " mixes " + type + " and " + valueType + " values");
+            }
+
+            switch (type) {
+                case LONG:
+                    longValues[size] = reader.getLong();
+                    break;
+                case DOUBLE:
+                    doubleValues[size] = reader.getDouble();
+                    break;
+                case BOOLEAN:
+                    booleanValues[size] = reader.getBoolean();
+                    break;
+                case STRING:
+                    stringValues[size] = reader.getString();
+                    break;
+            }
+        }
+
+        private void grow() {
+            int capacity = timestamps.length * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            if (longValues != null) {
+                longValues = Arrays.copyOf(longValues, capacity);
+            }
+            if (doubleValues != null) {
+                doubleValues = Arrays.copyOf(doubleValues, capacity);
+            }
+            if (booleanValues != null) {
+                booleanValues = Arrays.copyOf(booleanValues, capacity);
+            }
+            if (stringValues != null) {
+                stringValues = Arrays.copyOf(stringValues, capacity);
+            }
+            if (latitudes != null) {
+                latitudes = filled(Arrays.copyOf(latitudes, capacity), Double.NaN, size);
+                longitudes = filled(Arrays.copyOf(longitudes, capacity), Double.NaN, size);
+            }
+            if (elevations != null) {
+                elevations = Arrays.copyOf(elevations, capacity);
+                Arrays.fill(elevations, size, capacity, NO_ELEVATION);
+            }
+        }
+
+        private static double[] filled(double[] array, double value) {
+            return filled(array, value, 0);
+        }
+
+        private static double[] filled(double[] array, double value, int from) {
+            Arrays.fill(array, from, array.length, value);
+            return array;
+        }
+
+        Warp10GTS build() {
+            return new Warp10GTS(this);
+        }
+    }
+}
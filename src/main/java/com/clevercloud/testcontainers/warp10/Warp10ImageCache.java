@@ -0,0 +1,182 @@
+package com.clevercloud.testcontainers.warp10;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Image;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.LazyFuture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the Warp10 images embedding macros and configuration under a name derived from their content,
+ * so that an image is only built once for a given base image, macros folder and config folder. The base image is
+ * identified by its ID, so a tag pushed again with a new image gets new cached images.
+ * <p>
+ * Only the most recently built images are kept, the maximum number of cached images can be set with the
+ * {@value #MAX_IMAGES_PROPERTY} system property (defaults to {@value #DEFAULT_MAX_IMAGES}).
+ */
+final class Warp10ImageCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Warp10ImageCache.class);
+
+    static final String IMAGE_REPOSITORY = "testcontainers-warp10";
+    static final String CACHE_LABEL = "com.clever-cloud.testcontainers-warp10.cache";
+    static final String MAX_IMAGES_PROPERTY = "warp10.image.cache.size";
+    static final int DEFAULT_MAX_IMAGES = 8;
+
+    // Bump when the generated Dockerfile changes, so existing images are not reused
+    private static final String LAYOUT_VERSION = "1";
+
+    private static final Map<String, Object> BUILD_LOCKS = new ConcurrentHashMap<>();
+
+    private Warp10ImageCache() {
+    }
+
+    /**
+     * @param baseImage    canonical name of the Warp10 image to build from.
+     * @param macrosFolder macros folder to add to the image, may be null.
+     * @param configFolder config templates folder to add to the image, may be null.
+     * @return the image name, resolved (and built if needed) when the container is created.
+     */
+    static Future<String> image(final String baseImage, final File macrosFolder, final File configFolder) {
+        return new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                DockerClient client = DockerClientFactory.instance().client();
+                // Pulled as any other image, following the pull policy
+                new RemoteDockerImage(DockerImageName.parse(baseImage)).get();
+                String baseImageId = client.inspectImageCmd(baseImage).exec().getId();
+                String imageName = IMAGE_REPOSITORY + ":" + cacheKey(baseImage, baseImageId, macrosFolder, configFolder);
+
+                synchronized (BUILD_LOCKS.computeIfAbsent(imageName, name -> new Object())) {
+                    try {
+                        client.inspectImageCmd(imageName).exec();
+                        LOGGER.debug("Reusing cached Warp10 image {}", imageName);
+                        return imageName;
+                    } catch (NotFoundException e) {
+                        LOGGER.info("Building Warp10 image {} from {}", imageName, baseImage);
+                    }
+
+                    String built = build(imageName, baseImage, macrosFolder, configFolder);
+                    evict(client);
+                    return built;
+                }
+            }
+        };
+    }
+
+    private static String build(final String imageName, final String baseImage, final File macrosFolder, final File configFolder) {
+        ImageFromDockerfile image = new ImageFromDockerfile(imageName, false);
+        if (macrosFolder != null) {
+            image.withFileFromFile(macrosFolder.getPath(), macrosFolder);
+        }
+        if (configFolder != null) {
+            image.withFileFromFile(configFolder.getPath(), configFolder);
+        }
+        return image.withDockerfileFromBuilder(builder -> {
+            builder.from(baseImage);
+            builder.label(CACHE_LABEL, "true");
+            if (macrosFolder != null)
+                builder.add(macrosFolder.getPath(), "/opt/warp10/macros/");
+            if (configFolder != null)
+                builder.add(configFolder.getPath(), "/config.extra");
+
+            builder.build();
+        }).get();
+    }
+
+    /**
+     * Removes the oldest cached images above the configured limit. Images still used by a container are kept.
+     */
+    private static void evict(final DockerClient client) {
+        int maxImages = Integer.getInteger(MAX_IMAGES_PROPERTY, DEFAULT_MAX_IMAGES);
+        List<Image> images = client.listImagesCmd()
+            .withLabelFilter(Map.of(CACHE_LABEL, "true"))
+            .exec()
+            .stream()
+            .sorted(Comparator.comparing(Image::getCreated).reversed())
+            .collect(Collectors.toList());
+
+        for (Image image : images.subList(Math.min(maxImages, images.size()), images.size())) {
+            try {
+                client.removeImageCmd(image.getId()).exec();
+                LOGGER.debug("Evicted cached Warp10 image {}", image.getId());
+            } catch (Exception e) {
+                LOGGER.debug("Could not evict cached Warp10 image {}: {}", image.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hashes the base image, its ID and the content of the folders into a docker tag.
+     */
+    static String cacheKey(final String baseImage, final String baseImageId, final File macrosFolder, final File configFolder) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        update(digest, LAYOUT_VERSION);
+        update(digest, baseImage);
+        update(digest, baseImageId);
+        hashFolder(digest, "macros", macrosFolder);
+        hashFolder(digest, "config", configFolder);
+
+        StringBuilder sb = new StringBuilder();
+        byte[] hash = digest.digest();
+        for (int i = 0; i < 16; i++) {
+            sb.append(String.format("%02x", hash[i]));
+        }
+        return sb.toString();
+    }
+
+    private static void hashFolder(final MessageDigest digest, final String name, final File folder) {
+        update(digest, name);
+        if (folder == null) {
+            return;
+        }
+
+        // The build context path is part of the Dockerfile
+        update(digest, folder.getPath());
+        Path root = folder.toPath();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                update(digest, root.relativize(file).toString().replace(File.separatorChar, '/'));
+                update(digest, Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not hash folder " + folder.getPath(), e);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        update(digest, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(final MessageDigest digest, final byte[] value) {
+        int length = value.length;
+        digest.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        digest.update(value);
+    }
+}
@@ -0,0 +1,318 @@
+package com.clevercloud.testcontainers.warp10;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes points to Warp10 in batches, see {@link Warp10Client#ingester()}.
+ * <p>
+ * Points are written in the GTS input format straight into reusable buffers. A batch is sent when it reaches the
+ * batch size or when its oldest point is older than the max delay. Several batches are sent at the same time, adding
+ * points blocks when all of them are in flight. Request bodies are gzipped while being sent.
+ * <p>
+ * The ingester is meant to be fed by a single thread at a time. Errors of the asynchronous requests are thrown by the
+ * next call.
+ */
+public class Warp10Ingester implements AutoCloseable {
+    private static final MediaType GZIP = MediaType.get("application/gzip");
+    private static final int DEFAULT_BATCH_SIZE = 1024 * 1024;
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(200);
+    private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final Warp10Client client;
+    private final String writeToken;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Duration maxDelay = DEFAULT_MAX_DELAY;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private boolean gzip = true;
+
+    private Semaphore inFlight = null;
+    private final ConcurrentLinkedQueue<Warp10LineBuffer> freeBatches = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private Warp10LineBuffer batch = null;
+    // One per ingester: a timed flush waits for this ingester's request slots, it must not delay the others
+    private ScheduledExecutorService flusher = null;
+    private boolean closed = false;
+
+    private final AtomicLong points = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    Warp10Ingester(Warp10Client client, String writeToken) {
+        this.client = client;
+        this.writeToken = Objects.requireNonNull(writeToken, "writeToken");
+    }
+
+    /**
+     * @param batchSize size in bytes (before compression) above which a batch is sent, 1MB by default.
+     * @return this ingester.
+     */
+    public Warp10Ingester withBatchSize(int batchSize) {
+        checkNotStarted();
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @param maxDelay maximum time a point waits in a batch before being sent, 200ms by default.
+     * @return this ingester.
+     */
+    public Warp10Ingester withMaxDelay(Duration maxDelay) {
+        checkNotStarted();
+        this.maxDelay = Objects.requireNonNull(maxDelay, "maxDelay");
+        return this;
+    }
+
+    /**
+     * @param maxInFlight maximum number of batches being sent at the same time, 4 by default.
+     * @return this ingester.
+     */
+    public Warp10Ingester withMaxInFlight(int maxInFlight) {
+        checkNotStarted();
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * @param gzip whether request bodies are gzipped, true by default.
+     * @return this ingester.
+     */
+    public Warp10Ingester withGzip(boolean gzip) {
+        checkNotStarted();
+        this.gzip = gzip;
+        return this;
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, long value) throws IOException {
+        Warp10LineBuffer current = startPoint(series, timestamp);
+        current.writeLong(value);
+        endPoint(current);
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, double value) throws IOException {
+        Warp10LineBuffer current = startPoint(series, timestamp);
+        current.writeDouble(value);
+        endPoint(current);
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, boolean value) throws IOException {
+        Warp10LineBuffer current = startPoint(series, timestamp);
+        current.writeBoolean(value);
+        endPoint(current);
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, String value) throws IOException {
+        Warp10LineBuffer current = startPoint(series, timestamp);
+        current.writeString(value);
+        endPoint(current);
+    }
+
+    /**
+     * Sends the pending points without waiting for the response.
+     */
+    public synchronized void flush() throws IOException {
+        throwFailure();
+        if (batch != null && batch.size() > 0) {
+            send(batch);
+            batch = null;
+        }
+    }
+
+    /**
+     * Sends the pending points and waits for all the requests to complete.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+        if (inFlight != null) {
+            try {
+                inFlight.acquire(maxInFlight);
+                inFlight.release(maxInFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for Warp10 updates");
+            }
+        }
+        throwFailure();
+    }
+
+    public long getPoints() {
+        return points.get();
+    }
+
+    /**
+     * @return the bytes sent, before compression
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    private Warp10LineBuffer startPoint(Warp10Series series, long timestamp) throws IOException {
+        if (closed) {
+            throw new IOException("Ingester is closed");
+        }
+        throwFailure();
+        if (batch == null) {
+            batch = nextBatch();
+        }
+
+        batch.startPoint(series, timestamp);
+        return batch;
+    }
+
+    private void endPoint(Warp10LineBuffer current) throws IOException {
+        current.endPoint();
+        points.incrementAndGet();
+        if (current.size() >= batchSize) {
+            send(current);
+            batch = null;
+        }
+    }
+
+    private Warp10LineBuffer nextBatch() {
+        if (inFlight == null) {
+            inFlight = new Semaphore(maxInFlight);
+            long delay = maxDelay.toNanos();
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "warp10-ingester-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushExpired, delay, delay, TimeUnit.NANOSECONDS);
+        }
+        Warp10LineBuffer free = freeBatches.poll();
+        Warp10LineBuffer next = free != null ? free : new Warp10LineBuffer(batchSize);
+        next.reset();
+        return next;
+    }
+
+    private synchronized void flushExpired() {
+        if (batch != null && batch.size() > 0 && System.nanoTime() - batch.createdAt() >= maxDelay.toNanos()) {
+            try {
+                flush();
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void send(final Warp10LineBuffer sent) throws IOException {
+        try {
+            // Backpressure: wait for a request slot
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Warp10 updates");
+        }
+
+        bytes.addAndGet(sent.size());
+        requests.incrementAndGet();
+        Request request = new Request.Builder()
+            .url(client.getBaseUrl() + Warp10Client.UPDATE_API)
+            .header(Warp10Client.TOKEN_HEADER, writeToken)
+            .post(new BatchBody(sent, gzip))
+            .build();
+        client.httpClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                failure.compareAndSet(null, e);
+                release(sent);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        failure.compareAndSet(null, new IOException("Warp10 update failed with code " + response.code()
+                            + ": " + response.header(Warp10Client.ERROR_MESSAGE_HEADER)));
+                    }
+                } finally {
+                    release(sent);
+                }
+            }
+        });
+    }
+
+    private void release(Warp10LineBuffer sent) {
+        freeBatches.offer(sent);
+        inFlight.release();
+    }
+
+    private void throwFailure() throws IOException {
+        IOException e = failure.get();
+        if (e != null) {
+            throw new IOException("Warp10 update failed", e);
+        }
+    }
+
+    private void checkNotStarted() {
+        if (inFlight != null) {
+            throw new IllegalStateException("Ingester settings can't change once points were added");
+        }
+    }
+
+    private static final class BatchBody extends RequestBody {
+        private final Warp10LineBuffer batch;
+        private final boolean gzip;
+
+        BatchBody(Warp10LineBuffer batch, boolean gzip) {
+            this.batch = batch;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return gzip ? GZIP : Warp10Client.TEXT;
+        }
+
+        @Override
+        public long contentLength() {
+            return gzip ? -1 : batch.size();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            if (gzip) {
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                    batch.writeTo(gzipSink);
+                }
+            } else {
+                batch.writeTo(sink);
+            }
+        }
+    }
+}
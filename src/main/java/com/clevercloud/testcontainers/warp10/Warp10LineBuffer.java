@@ -0,0 +1,153 @@
+package com.clevercloud.testcontainers.warp10;
+
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of GTS input format lines, written without allocating per point.
+ * <p>
+ * A point is written with {@link #startPoint(Warp10Series, long)}, one of the value methods, then
+ * {@link #endPoint()}. Points following one of the same series are written as continuation lines.
+ */
+final class Warp10LineBuffer {
+    private byte[] data;
+    private int size = 0;
+    private int points = 0;
+    private long createdAt = 0L;
+    private Warp10Series lastSeries = null;
+    private final StringBuilder scratch = new StringBuilder(32);
+
+    Warp10LineBuffer(int capacity) {
+        this.data = new byte[capacity + 1024];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int points() {
+        return points;
+    }
+
+    long createdAt() {
+        return createdAt;
+    }
+
+    void reset() {
+        size = 0;
+        points = 0;
+        lastSeries = null;
+        createdAt = System.nanoTime();
+    }
+
+    void startPoint(Warp10Series series, long timestamp) {
+        if (lastSeries == series) {
+            // Continuation line, the series is the one of the previous line
+            write('=');
+            writeLong(timestamp);
+            writeAscii("// ");
+        } else {
+            writeLong(timestamp);
+            writeAscii("// ");
+            write(series.encoded());
+            write(' ');
+            lastSeries = series;
+        }
+    }
+
+    void endPoint() {
+        write('\n');
+        points++;
+    }
+
+    void writeBoolean(boolean value) {
+        write(value ? 'T' : 'F');
+    }
+
+    void writeString(String value) {
+        StringBuilder sb = scratch();
+        sb.append('\'');
+        Warp10Series.encode(sb, value);
+        sb.append('\'');
+        writeAscii(sb);
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            data[size++] = '-';
+            value = -value;
+        }
+        int start = size;
+        do {
+            data[size++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // Digits were written in reverse order
+        for (int i = start, j = size - 1; i < j; i++, j--) {
+            byte tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+    }
+
+    void writeDouble(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            // Integral values keep their double type with a decimal point
+            writeLong((long) value);
+            write('.');
+            write('0');
+        } else {
+            StringBuilder sb = scratch();
+            sb.append(value);
+            writeAscii(sb);
+        }
+    }
+
+    void writeTo(BufferedSink sink) throws IOException {
+        sink.write(data, 0, size);
+    }
+
+    /**
+     * @return the lines as a string, lines only holding ASCII characters
+     */
+    String toAsciiString() {
+        return new String(data, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    private void write(int b) {
+        ensureCapacity(1);
+        data[size++] = (byte) b;
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, data, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void writeAscii(CharSequence chars) {
+        ensureCapacity(chars.length());
+        for (int i = 0; i < chars.length(); i++) {
+            data[size++] = (byte) chars.charAt(i);
+        }
+    }
+
+    private StringBuilder scratch() {
+        scratch.setLength(0);
+        return scratch;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A Geo Time Series selector (class and labels), encoded once in the GTS input format so that writing points
+ * of the series doesn't allocate.
+ */
+public final class Warp10Series {
+    private final String className;
+    private final Map<String, String> labels;
+    private final byte[] encoded;
+
+    private Warp10Series(String className, Map<String, String> labels) {
+        this.className = className;
+        this.labels = Map.copyOf(labels);
+
+        StringBuilder sb = new StringBuilder();
+        encode(sb, className);
+        sb.append('{');
+        boolean first = true;
+        for (Map.Entry<String, String> label : new TreeMap<>(labels).entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            encode(sb, label.getKey());
+            sb.append('=');
+            encode(sb, label.getValue());
+            first = false;
+        }
+        sb.append('}');
+        this.encoded = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static Warp10Series of(String className) {
+        return new Warp10Series(className, Map.of());
+    }
+
+    public static Warp10Series of(String className, Map<String, String> labels) {
+        return new Warp10Series(className, labels);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return the selector in the GTS input format, e.g. {@code class{label=value}}
+     */
+    byte[] encoded() {
+        return encoded;
+    }
+
+    /**
+     * Percent-encodes the characters which have a meaning in the GTS input format, and non ASCII characters.
+     */
+    static void encode(StringBuilder sb, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xFF;
+            if (c <= 0x20 || c >= 0x7F || c == '%' || c == ',' || c == '{' || c == '}' || c == '=' || c == '\'' || c == '"') {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16))).append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            } else {
+                sb.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Warp10Series that = (Warp10Series) o;
+        return Arrays.equals(encoded, that.encoded);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(encoded);
+    }
+
+    @Override
+    public String toString() {
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+}
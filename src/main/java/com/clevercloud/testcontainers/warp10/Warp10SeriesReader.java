@@ -0,0 +1,172 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the Geo Time Series of a Warp10 response, one point at a time.
+ * <p>
+ * The reader is a cursor: {@link #nextSeries()} moves to the next series and {@link #nextPoint()} to the next point of
+ * the current series, whose fields are then available from the getters. Only the current point is held in memory, so
+ * responses of any size can be checked. {@link #readAll()} collects the remaining series into primitive columns.
+ * <p>
+ * Readers are not thread safe.
+ */
+public abstract class Warp10SeriesReader implements Closeable {
+    private final Closeable resource;
+
+    String className = null;
+    Map<String, String> labels = Map.of();
+    Map<String, String> attributes = Map.of();
+
+    long timestamp;
+    boolean hasLocation;
+    double latitude;
+    double longitude;
+    boolean hasElevation;
+    long elevation;
+    Warp10GTS.Type type;
+    long longValue;
+    double doubleValue;
+    boolean booleanValue;
+    String stringValue;
+
+    Warp10SeriesReader(Closeable resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Reads the JSON stack returned by /api/v0/exec. Series are found at any depth, in lists and maps.
+     *
+     * @param json the response body, closed with the reader.
+     * @return the reader.
+     */
+    public static Warp10SeriesReader ofExec(InputStream json) throws IOException {
+        return new Warp10ExecReader(json, json);
+    }
+
+    /**
+     * Reads the text output of /api/v0/fetch, in the GTS input format.
+     *
+     * @param text the response body, closed with the reader.
+     * @return the reader.
+     */
+    public static Warp10SeriesReader ofFetch(InputStream text) {
+        return new Warp10FetchReader(text, text);
+    }
+
+    /**
+     * Moves to the next series, skipping the remaining points of the current one.
+     *
+     * @return false when there is no more series
+     */
+    public abstract boolean nextSeries() throws IOException;
+
+    /**
+     * Moves to the next point of the current series.
+     *
+     * @return false when the current series has no more point
+     */
+    public abstract boolean nextPoint() throws IOException;
+
+    /**
+     * Reads the remaining series, with all their points.
+     *
+     * @return the series, in the order of the response.
+     */
+    public List<Warp10GTS> readAll() throws IOException {
+        List<Warp10GTS> series = new ArrayList<>();
+        while (nextSeries()) {
+            Warp10GTS.Builder builder = new Warp10GTS.Builder(className, labels, attributes);
+            while (nextPoint()) {
+                builder.add(this);
+            }
+            series.add(builder.build());
+        }
+        return series;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean hasLocation() {
+        return hasLocation;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public boolean hasElevation() {
+        return hasElevation;
+    }
+
+    public long getElevation() {
+        return elevation;
+    }
+
+    public Warp10GTS.Type getType() {
+        return type;
+    }
+
+    public long getLong() {
+        return longValue;
+    }
+
+    /**
+     * @return the value of the current point, long values being converted
+     */
+    public double getDouble() {
+        return type == Warp10GTS.Type.LONG ? longValue : doubleValue;
+    }
+
+    public boolean getBoolean() {
+        return booleanValue;
+    }
+
+    public String getString() {
+        return stringValue;
+    }
+
+    void startSeries(String className, Map<String, String> labels, Map<String, String> attributes) {
+        this.className = className;
+        this.labels = labels;
+        this.attributes = attributes;
+    }
+
+    void startPoint(long timestamp) {
+        this.timestamp = timestamp;
+        this.hasLocation = false;
+        this.hasElevation = false;
+        this.latitude = Double.NaN;
+        this.longitude = Double.NaN;
+        this.elevation = Warp10GTS.NO_ELEVATION;
+        this.stringValue = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        resource.close();
+    }
+}
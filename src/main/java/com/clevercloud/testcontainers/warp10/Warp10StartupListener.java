@@ -0,0 +1,32 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.time.Duration;
+
+/**
+ * Notified of the progress of a Warp10 container startup, see {@link Warp10Container#withStartupListener}.
+ */
+public interface Warp10StartupListener {
+    /**
+     * Called each time a startup phase completes.
+     *
+     * @param phase    the completed phase.
+     * @param duration time spent in the phase.
+     */
+    default void onPhase(Warp10StartupReport.Phase phase, Duration duration) {
+    }
+
+    /**
+     * Called each time a dataset file is ingested, see {@link Warp10Container#withDataset(java.nio.file.Path...)}.
+     *
+     * @param progress files and bytes ingested so far.
+     */
+    default void onDatasetProgress(Warp10DatasetProgress progress) {
+    }
+
+    /**
+     * Called once the container is started and its tokens are ready.
+     *
+     * @param report time spent in each phase.
+     */
+    void onStarted(Warp10StartupReport report);
+}
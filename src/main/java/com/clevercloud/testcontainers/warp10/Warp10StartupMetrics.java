@@ -0,0 +1,111 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates startup reports, e.g. over a whole test suite, to follow startup time percentiles per image.
+ * All the containers of the JVM record their startup into {@link #global()}.
+ */
+public class Warp10StartupMetrics implements Warp10StartupListener {
+    private static final Warp10StartupMetrics GLOBAL = new Warp10StartupMetrics();
+
+    private final List<Warp10StartupReport> reports = new CopyOnWriteArrayList<>();
+
+    public static Warp10StartupMetrics global() {
+        return GLOBAL;
+    }
+
+    @Override
+    public void onStarted(Warp10StartupReport report) {
+        reports.add(report);
+    }
+
+    public List<Warp10StartupReport> getReports() {
+        return List.copyOf(reports);
+    }
+
+    /**
+     * @param imageName image the containers were started from.
+     * @return metrics restricted to the startups of this image
+     */
+    public Warp10StartupMetrics forImage(String imageName) {
+        Warp10StartupMetrics metrics = new Warp10StartupMetrics();
+        reports.stream()
+            .filter(report -> imageName.equals(report.getImageName()))
+            .forEach(metrics.reports::add);
+        return metrics;
+    }
+
+    /**
+     * @param phase      the phase.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the percentile of the phase duration (nearest rank), or null if no startup went through it
+     */
+    public Duration percentile(Warp10StartupReport.Phase phase, double percentile) {
+        return percentile(report -> report.getPhase(phase), percentile);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100.
+     * @return the percentile of the total startup duration (nearest rank), or null if no startup was recorded
+     */
+    public Duration totalPercentile(double percentile) {
+        return percentile(Warp10StartupReport::getTotal, percentile);
+    }
+
+    private Duration percentile(Function<Warp10StartupReport, Duration> metric, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        List<Duration> values = reports.stream()
+            .map(metric)
+            .filter(value -> value != null)
+            .sorted()
+            .collect(Collectors.toList());
+        if (values.isEmpty()) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * values.size());
+        return values.get(Math.max(rank - 1, 0));
+    }
+
+    /**
+     * @return p50, p90, p99 and max of every phase and of the total, one line per image
+     */
+    public String summary() {
+        Map<String, List<Warp10StartupReport>> byImage = new TreeMap<>();
+        reports.forEach(report -> byImage.computeIfAbsent(report.getImageName(), key -> new ArrayList<>()).add(report));
+
+        StringBuilder sb = new StringBuilder();
+        byImage.forEach((imageName, imageReports) -> {
+            Warp10StartupMetrics metrics = forImage(imageName);
+            sb.append(imageName).append(" (").append(imageReports.size()).append(" startups)");
+            for (Warp10StartupReport.Phase phase : Warp10StartupReport.Phase.values()) {
+                if (metrics.percentile(phase, 100) != null) {
+                    sb.append(' ').append(phase).append('=').append(metrics.format(report -> report.getPhase(phase)));
+                }
+            }
+            sb.append(" TOTAL=").append(metrics.format(Warp10StartupReport::getTotal)).append('\n');
+        });
+        return sb.toString();
+    }
+
+    private String format(Function<Warp10StartupReport, Duration> metric) {
+        return String.format("[p50=%dms p90=%dms p99=%dms max=%dms]",
+            percentile(metric, 50).toMillis(),
+            percentile(metric, 90).toMillis(),
+            percentile(metric, 99).toMillis(),
+            percentile(metric, 100).toMillis());
+    }
+
+    public void clear() {
+        reports.clear();
+    }
+}
@@ -0,0 +1,73 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Time spent in each phase of a Warp10 container startup, measured with a monotonic clock.
+ * Phases after {@link Phase#WAIT} may overlap.
+ */
+public class Warp10StartupReport {
+    public enum Phase {
+        // Pull or build of the image
+        IMAGE,
+        // Creation of the container, including the files copied before it starts
+        CREATE,
+        // Start of the container
+        START,
+        // Wait strategy, until Warp10 answers
+        WAIT,
+        // Extraction of the crypto keys from the configuration, concurrent with the tokengen execution
+        CRYPTO_KEYS,
+        // Generation of the tokens, in the container or in the JVM
+        TOKEN_GENERATION,
+        // Ingestion of the datasets, from inside the container
+        DATASETS,
+        // Restart of Warp10 to copy its data, with resettable data
+        RESET_BASELINE
+    }
+
+    private final String imageName;
+    private final Map<Phase, Duration> phases;
+    private final Duration total;
+
+    public Warp10StartupReport(String imageName, Map<Phase, Duration> phases, Duration total) {
+        this.imageName = imageName;
+        this.phases = Collections.unmodifiableMap(new EnumMap<>(phases));
+        this.total = total;
+    }
+
+    public String getImageName() {
+        return imageName;
+    }
+
+    /**
+     * @return the duration of each phase, in startup order. Skipped phases are absent.
+     */
+    public Map<Phase, Duration> getPhases() {
+        return phases;
+    }
+
+    /**
+     * @param phase the phase.
+     * @return the duration of the phase, or null if it was skipped
+     */
+    public Duration getPhase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public Duration getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "Warp10StartupReport{" +
+            "imageName='" + imageName + '\'' +
+            ", phases=" + phases +
+            ", total=" + total +
+            '}';
+    }
+}
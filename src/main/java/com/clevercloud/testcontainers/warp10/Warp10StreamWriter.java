@@ -0,0 +1,368 @@
+package com.clevercloud.testcontainers.warp10;
+
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes points to Warp10 through the /api/v0/streamupdate WebSocket, see {@link Warp10Client#streamWriter()}.
+ * <p>
+ * Points are written in the GTS input format into a frame, sent once it reaches the frame size or on
+ * {@link #flush()}. Frames are pipelined: up to max unacked frames are sent before waiting for Warp10 to acknowledge
+ * them, adding points blocks beyond that. Acknowledgements are measured, see {@link #getStats()}.
+ * <p>
+ * The writer is meant to be fed by a single thread at a time. Errors reported by Warp10 are thrown by the next call.
+ */
+public class Warp10StreamWriter implements AutoCloseable {
+    static final String STREAM_UPDATE_API = "/api/v0/streamupdate";
+
+    private static final int DEFAULT_FRAME_SIZE = 256 * 1024;
+    private static final int DEFAULT_MAX_UNACKED = 16;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofMinutes(1);
+    private static final int NORMAL_CLOSURE = 1000;
+
+    private final Warp10Client client;
+    private final String writeToken;
+
+    private int frameSize = DEFAULT_FRAME_SIZE;
+    private int maxUnacked = DEFAULT_MAX_UNACKED;
+
+    private WebSocket webSocket = null;
+    private Semaphore unacked = null;
+    private Warp10LineBuffer frame = null;
+    private boolean closed = false;
+    private final ConcurrentLinkedQueue<SentFrame> sentFrames = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    private volatile long firstSentAt = 0L;
+    private volatile long lastAckedAt = 0L;
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong pointsSent = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong framesAcked = new AtomicLong();
+    private final AtomicLong pointsAcked = new AtomicLong();
+    private final AtomicLong ackLatencyTotal = new AtomicLong();
+    private final AtomicLong ackLatencyMax = new AtomicLong();
+
+    Warp10StreamWriter(Warp10Client client, String writeToken) {
+        this.client = client;
+        this.writeToken = Objects.requireNonNull(writeToken, "writeToken");
+    }
+
+    /**
+     * @param frameSize size in bytes above which a frame is sent, 256KB by default.
+     * @return this writer.
+     */
+    public Warp10StreamWriter withFrameSize(int frameSize) {
+        checkNotStarted();
+        this.frameSize = frameSize;
+        return this;
+    }
+
+    /**
+     * @param maxUnacked maximum number of frames sent and not acknowledged yet, 16 by default.
+     * @return this writer.
+     */
+    public Warp10StreamWriter withMaxUnacked(int maxUnacked) {
+        checkNotStarted();
+        if (maxUnacked < 1) {
+            throw new IllegalArgumentException("maxUnacked must be at least 1: " + maxUnacked);
+        }
+        this.maxUnacked = maxUnacked;
+        return this;
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, long value) throws IOException {
+        startPoint(series, timestamp).writeLong(value);
+        endPoint();
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, double value) throws IOException {
+        startPoint(series, timestamp).writeDouble(value);
+        endPoint();
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, boolean value) throws IOException {
+        startPoint(series, timestamp).writeBoolean(value);
+        endPoint();
+    }
+
+    public synchronized void add(Warp10Series series, long timestamp, String value) throws IOException {
+        startPoint(series, timestamp).writeString(value);
+        endPoint();
+    }
+
+    /**
+     * Sends the pending points without waiting for their acknowledgement.
+     */
+    public synchronized void flush() throws IOException {
+        throwFailure();
+        if (frame != null && frame.size() > 0) {
+            send();
+        }
+    }
+
+    /**
+     * Sends the pending points, waits for all the frames to be acknowledged and closes the socket.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (webSocket == null) {
+            return;
+        }
+        try {
+            flush();
+            if (!unacked.tryAcquire(maxUnacked, CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for Warp10 to acknowledge " + sentFrames.size() + " frames");
+            }
+            throwFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Warp10 acknowledgements");
+        } finally {
+            webSocket.close(NORMAL_CLOSURE, null);
+        }
+    }
+
+    /**
+     * @return the counters of the sent and acknowledged frames
+     */
+    public Stats getStats() {
+        long acked = framesAcked.get();
+        long first = firstSentAt;
+        long last = lastAckedAt;
+        return new Stats(
+            framesSent.get(),
+            pointsSent.get(),
+            bytesSent.get(),
+            acked,
+            pointsAcked.get(),
+            first > 0 && last > first ? Duration.ofNanos(last - first) : Duration.ZERO,
+            acked > 0 ? Duration.ofNanos(ackLatencyTotal.get() / acked) : Duration.ZERO,
+            Duration.ofNanos(ackLatencyMax.get()));
+    }
+
+    private Warp10LineBuffer startPoint(Warp10Series series, long timestamp) throws IOException {
+        if (closed) {
+            throw new IOException("Stream writer is closed");
+        }
+        throwFailure();
+        if (webSocket == null) {
+            open();
+        }
+        frame.startPoint(series, timestamp);
+        return frame;
+    }
+
+    private void endPoint() throws IOException {
+        frame.endPoint();
+        if (frame.size() >= frameSize) {
+            send();
+        }
+    }
+
+    private void open() {
+        unacked = new Semaphore(maxUnacked);
+        frame = new Warp10LineBuffer(frameSize);
+        frame.reset();
+
+        Request request = new Request.Builder()
+            .url(client.getBaseUrl() + STREAM_UPDATE_API)
+            .build();
+        webSocket = client.httpClient().newWebSocket(request, new Listener());
+        // Queued until the socket is open. Errors are reported as messages instead of closing the socket
+        webSocket.send("TOKEN " + writeToken);
+        webSocket.send("ONERROR message");
+    }
+
+    private void send() throws IOException {
+        try {
+            // Backpressure: wait for a frame to be acknowledged
+            unacked.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Warp10 acknowledgements");
+        }
+        throwFailure();
+
+        long now = System.nanoTime();
+        if (firstSentAt == 0L) {
+            firstSentAt = now;
+        }
+        sentFrames.offer(new SentFrame(now, frame.points()));
+        framesSent.incrementAndGet();
+        pointsSent.addAndGet(frame.points());
+        bytesSent.addAndGet(frame.size());
+        if (!webSocket.send(frame.toAsciiString())) {
+            throw new IOException("Warp10 stream update socket is closed");
+        }
+        frame.reset();
+    }
+
+    private void acknowledge() {
+        SentFrame sent = sentFrames.poll();
+        if (sent == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long latency = now - sent.sentAt;
+        lastAckedAt = now;
+        framesAcked.incrementAndGet();
+        pointsAcked.addAndGet(sent.points);
+        ackLatencyTotal.addAndGet(latency);
+        ackLatencyMax.accumulateAndGet(latency, Math::max);
+        unacked.release();
+    }
+
+    private void fail(IOException e) {
+        failure.compareAndSet(null, e);
+        // Unblock the writer, the failure is thrown by its next call
+        unacked.release(maxUnacked);
+    }
+
+    private void throwFailure() throws IOException {
+        IOException e = failure.get();
+        if (e != null) {
+            throw new IOException("Warp10 stream update failed", e);
+        }
+    }
+
+    private void checkNotStarted() {
+        if (webSocket != null) {
+            throw new IllegalStateException("Stream writer settings can't change once points were added");
+        }
+    }
+
+    private final class Listener extends WebSocketListener {
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            // Warp10 answers every message with "OK <seqno> <command> ...", data frames being UPDATE commands
+            if (text.startsWith("OK") && text.contains(" UPDATE")) {
+                acknowledge();
+            } else if (text.startsWith("ERROR")) {
+                fail(new IOException(text));
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            if (code != NORMAL_CLOSURE || !sentFrames.isEmpty()) {
+                fail(new IOException("Warp10 closed the stream update socket: " + code + " " + reason));
+            }
+            webSocket.close(NORMAL_CLOSURE, null);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            fail(t instanceof IOException ? (IOException) t : new IOException(t));
+        }
+    }
+
+    private static final class SentFrame {
+        private final long sentAt;
+        private final int points;
+
+        SentFrame(long sentAt, int points) {
+            this.sentAt = sentAt;
+            this.points = points;
+        }
+    }
+
+    /**
+     * Counters of a stream writer.
+     */
+    public static class Stats {
+        private final long framesSent;
+        private final long pointsSent;
+        private final long bytesSent;
+        private final long framesAcked;
+        private final long pointsAcked;
+        private final Duration elapsed;
+        private final Duration meanAckLatency;
+        private final Duration maxAckLatency;
+
+        Stats(long framesSent, long pointsSent, long bytesSent, long framesAcked, long pointsAcked,
+              Duration elapsed, Duration meanAckLatency, Duration maxAckLatency) {
+            this.framesSent = framesSent;
+            this.pointsSent = pointsSent;
+            this.bytesSent = bytesSent;
+            this.framesAcked = framesAcked;
+            this.pointsAcked = pointsAcked;
+            this.elapsed = elapsed;
+            this.meanAckLatency = meanAckLatency;
+            this.maxAckLatency = maxAckLatency;
+        }
+
+        public long getFramesSent() {
+            return framesSent;
+        }
+
+        public long getPointsSent() {
+            return pointsSent;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getFramesAcked() {
+            return framesAcked;
+        }
+
+        public long getPointsAcked() {
+            return pointsAcked;
+        }
+
+        /**
+         * @return the time between the first frame being sent and the last acknowledgement
+         */
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        public Duration getMeanAckLatency() {
+            return meanAckLatency;
+        }
+
+        public Duration getMaxAckLatency() {
+            return maxAckLatency;
+        }
+
+        /**
+         * @return the acknowledged points per second
+         */
+        public double getAckedPointsPerSecond() {
+            return elapsed.isZero() ? 0.0 : pointsAcked / (elapsed.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                "framesSent=" + framesSent +
+                ", pointsSent=" + pointsSent +
+                ", bytesSent=" + bytesSent +
+                ", framesAcked=" + framesAcked +
+                ", pointsAcked=" + pointsAcked +
+                ", elapsed=" + elapsed +
+                ", meanAckLatency=" + meanAckLatency +
+                ", maxAckLatency=" + maxAckLatency +
+                ", ackedPointsPerSecond=" + String.format("%.0f", getAckedPointsPerSecond()) +
+                '}';
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.clevercloud.testcontainers.warp10;
+
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.model.ContainerConfig;
+import org.testcontainers.DockerClientFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the Warp10 process under a supervisor loop, so that it can be stopped and started again without stopping the
+ * container, e.g. to copy its data while LevelDB is closed. See {@link Warp10Container#reset()}.
+ * <p>
+ * The image entrypoint runs in its own process group. Stopping kills the group, the loop then waits until it is asked
+ * to resume and runs the entrypoint again. The container, its ports and its configuration (crypto keys included) stay
+ * the same, only the Warp10 JVM restarts.
+ */
+final class Warp10Supervisor {
+    /**
+     * The LevelDB directory, resolved in the container as the image links it into its data volume.
+     */
+    static final String LEVELDB_PATH = "$(readlink -f /opt/warp10/leveldb)";
+
+    private static final String SUPERVISOR_PATH = "/warp10-supervisor";
+    private static final String STOP_PATH = SUPERVISOR_PATH + "/stop";
+    private static final String STOPPED_PATH = SUPERVISOR_PATH + "/stopped";
+    private static final String PID_PATH = SUPERVISOR_PATH + "/pid";
+    private static final String BASELINE_PATH = SUPERVISOR_PATH + "/baseline";
+
+    // Exits with Warp10 unless a stop was requested, docker stop exiting once Warp10 is gone
+    private static final String SUPERVISOR_SCRIPT = "mkdir -p " + SUPERVISOR_PATH + "; rm -f " + STOP_PATH + " " + STOPPED_PATH + ";"
+        + " trap 'stopping=1; kill -TERM -$pid 2>/dev/null' TERM INT;"
+        + " while true; do"
+        + "   setsid \"$@\" & pid=$!;"
+        + "   echo $pid > " + PID_PATH + ";"
+        + "   wait $pid; status=$?;"
+        + "   while kill -0 -$pid 2>/dev/null; do sleep 0.1; done;"
+        + "   [ -f " + STOP_PATH + " ] && [ -z \"$stopping\" ] || exit $status;"
+        + "   touch " + STOPPED_PATH + ";"
+        + "   while [ -f " + STOP_PATH + " ] && [ -z \"$stopping\" ]; do sleep 0.1; done;"
+        + "   [ -z \"$stopping\" ] || exit 0;"
+        + "   rm -f " + STOPPED_PATH + ";"
+        + " done";
+
+    // Both wait up to 60s for the supervisor
+    static final String STOP_SCRIPT = "touch " + STOP_PATH + " && kill -TERM -$(cat " + PID_PATH + ");"
+        + " i=0; while [ ! -f " + STOPPED_PATH + " ] && [ $i -lt 600 ]; do sleep 0.1; i=$((i+1)); done;"
+        + " [ -f " + STOPPED_PATH + " ]";
+    static final String RESUME_SCRIPT = "rm -f " + STOP_PATH + ";"
+        + " i=0; while [ -f " + STOPPED_PATH + " ] && [ $i -lt 600 ]; do sleep 0.1; i=$((i+1)); done;"
+        + " [ ! -f " + STOPPED_PATH + " ]";
+
+    // Run while Warp10 is stopped, so LevelDB is not being written or compacted
+    static final String BASELINE_SCRIPT = "set -e; rm -rf " + BASELINE_PATH + "; cp -a " + LEVELDB_PATH + " " + BASELINE_PATH;
+    static final String RESTORE_BASELINE_SCRIPT = "set -e; data=" + LEVELDB_PATH + ";"
+        + " find \"$data\" -mindepth 1 -delete; cp -a " + BASELINE_PATH + "/. \"$data\"/";
+
+    private Warp10Supervisor() {
+    }
+
+    /**
+     * @param entrypoint entrypoint of a container.
+     * @return whether it is the supervisor loop, the original entrypoint then being the container command
+     */
+    static boolean isSupervisor(final String[] entrypoint) {
+        return entrypoint != null && entrypoint.length == 4 && SUPERVISOR_SCRIPT.equals(entrypoint[2]);
+    }
+
+    /**
+     * Runs the command of the container under the supervisor loop.
+     */
+    static void apply(final CreateContainerCmd cmd) {
+        List<String> command = new ArrayList<>();
+        String[] entrypoint = cmd.getEntrypoint();
+        String[] arguments = cmd.getCmd();
+        if (entrypoint == null || arguments == null) {
+            InspectImageResponse image = DockerClientFactory.instance().client().inspectImageCmd(cmd.getImage()).exec();
+            ContainerConfig config = image.getConfig();
+            if (entrypoint == null && config != null) {
+                entrypoint = config.getEntrypoint();
+            }
+            if (arguments == null && config != null) {
+                arguments = config.getCmd();
+            }
+        }
+        if (entrypoint != null) {
+            command.addAll(Arrays.asList(entrypoint));
+        }
+        if (arguments != null) {
+            command.addAll(Arrays.asList(arguments));
+        }
+
+        cmd.withEntrypoint("sh", "-c", SUPERVISOR_SCRIPT, "sh");
+        cmd.withCmd(command.toArray(new String[0]));
+    }
+}
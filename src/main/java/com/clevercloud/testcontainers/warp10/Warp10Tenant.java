@@ -0,0 +1,63 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.util.UUID;
+
+/**
+ * An isolated slice of a Warp10 container: its tokens can only write and read data of its own application,
+ * owner and producer, so tests sharing a container cannot see each other's GTS.
+ */
+public class Warp10Tenant {
+    private final String application;
+    private final UUID ownerAndProducer;
+    private final String readToken;
+    private final String writeToken;
+
+    public Warp10Tenant(String application, UUID ownerAndProducer, String readToken, String writeToken) {
+        this.application = application;
+        this.ownerAndProducer = ownerAndProducer;
+        this.readToken = readToken;
+        this.writeToken = writeToken;
+    }
+
+    /**
+     * Mints the tokens of a new tenant.
+     *
+     * @param encoder          encoder of the container the tenant belongs to.
+     * @param application      application name of the tenant.
+     * @param ownerAndProducer owner and producer of the tenant data.
+     * @return the tenant.
+     */
+    public static Warp10Tenant create(Warp10TokenEncoder encoder, String application, UUID ownerAndProducer) {
+        String readToken = encoder.encode(Warp10TokenSpec.read()
+            .withApplication(application)
+            .withOwner(ownerAndProducer));
+        String writeToken = encoder.encode(Warp10TokenSpec.write()
+            .withApplication(application)
+            .withOwner(ownerAndProducer));
+        return new Warp10Tenant(application, ownerAndProducer, readToken, writeToken);
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public UUID getOwnerAndProducer() {
+        return ownerAndProducer;
+    }
+
+    public String getReadToken() {
+        return readToken;
+    }
+
+    public String getWriteToken() {
+        return writeToken;
+    }
+
+    @Override
+    public String toString() {
+        return "Warp10Tenant{" +
+            "application='" + application + '\'' +
+            ", ownerAndProducer=" + ownerAndProducer +
+            '}';
+    }
+}
@@ -0,0 +1,384 @@
+package com.clevercloud.testcontainers.warp10;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Mints Warp10 tokens in the JVM from the container crypto keys, without running TOKENGEN in the container.
+ * <p>
+ * Tokens are encoded the same way Warp10 does: the ReadToken/WriteToken thrift structure is serialized with the
+ * compact protocol, prefixed with its SipHash (warp.hash.token), padded (PKCS#7), wrapped with AES key wrap (RFC 3394,
+ * warp.aes.token) and finally encoded with Warp10's order preserving base64.
+ * <p>
+ * Instances are thread safe.
+ */
+public class Warp10TokenEncoder {
+    private static final char[] ORDER_PRESERVING_BASE64 =
+        ".0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final byte[] AES_WRAP_IV = {
+        (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6, (byte) 0xA6
+    };
+
+    // Thrift TokenType enum values
+    private static final int TOKEN_TYPE_READ = 1;
+    private static final int TOKEN_TYPE_WRITE = 2;
+
+    private final SecretKeySpec aesKey;
+    private final long sipHashK0;
+    private final long sipHashK1;
+    private final ThreadLocal<Cipher> cipher;
+
+    /**
+     * @param cryptoKeys the keys of the Warp10 instance the tokens are minted for.
+     */
+    public Warp10TokenEncoder(Warp10CryptoKeys cryptoKeys) {
+        Objects.requireNonNull(cryptoKeys, "cryptoKeys");
+        if (!cryptoKeys.isValid()) {
+            throw new IllegalArgumentException("Invalid crypto keys: " + cryptoKeys);
+        }
+
+        this.aesKey = new SecretKeySpec(fromHex(cryptoKeys.getAesTokenKey()), "AES");
+        byte[] sipHashKey = fromHex(cryptoKeys.getSipHashToken());
+        this.sipHashK0 = readLongLE(sipHashKey, 0);
+        this.sipHashK1 = readLongLE(sipHashKey, 8);
+        this.cipher = ThreadLocal.withInitial(() -> {
+            try {
+                Cipher aes = Cipher.getInstance("AES/ECB/NoPadding");
+                aes.init(Cipher.ENCRYPT_MODE, aesKey);
+                return aes;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES is not available", e);
+            }
+        });
+    }
+
+    /**
+     * Encodes a token.
+     *
+     * @param spec the token description.
+     * @return the token, as TOKENGEN would have returned it.
+     */
+    public String encode(Warp10TokenSpec spec) {
+        byte[] serialized = spec.getType() == Warp10TokenSpec.Type.READ
+            ? serializeReadToken(spec, System.currentTimeMillis())
+            : serializeWriteToken(spec, System.currentTimeMillis());
+        return encrypt(serialized);
+    }
+
+    private String encrypt(byte[] serialized) {
+        long sip = sipHash24Palindromic(sipHashK0, sipHashK1, serialized);
+
+        // 8 bytes of SipHash, the token and PKCS#7 padding to the next multiple of 8 (always at least one byte)
+        int length = 8 + serialized.length;
+        int padding = 8 - length % 8;
+        byte[] data = new byte[length + padding];
+        for (int i = 0; i < 8; i++) {
+            data[i] = (byte) (sip >>> (56 - 8 * i));
+        }
+        System.arraycopy(serialized, 0, data, 8, serialized.length);
+        Arrays.fill(data, length, data.length, (byte) padding);
+
+        return encodeOrderPreservingBase64(aesWrap(cipher.get(), data));
+    }
+
+    /*
+     * struct ReadToken {
+     *   1: i64 issuanceTimestamp, 2: i64 expiryTimestamp, 3: TokenType tokenType, 4: optional bool lookup,
+     *   5: binary billedId, 6: string appName, 7: list<string> apps, 8: list<binary> owners,
+     *   9: list<binary> producers, 10: optional map<string,string> hooks, 11: optional bool groovy,
+     *   12: optional i64 maxFetchSize, 13: optional map<string,string> labels, 14: optional bool dataPeek,
+     *   15: optional map<string,string> attributes
+     * }
+     */
+    private static byte[] serializeReadToken(Warp10TokenSpec spec, long now) {
+        CompactWriter writer = new CompactWriter();
+        writer.i64Field(1, spec.getIssuance(now));
+        writer.i64Field(2, spec.getExpiry(now));
+        writer.i32Field(3, TOKEN_TYPE_READ);
+        writer.binaryField(5, uuidToBytes(spec.getOwner()));
+        writer.binaryField(6, spec.getApplication().getBytes(StandardCharsets.UTF_8));
+        writer.stringListField(7, spec.getApplications());
+        writer.uuidListField(8, spec.getOwners());
+        writer.uuidListField(9, spec.getProducers());
+        if (!spec.getLabels().isEmpty()) {
+            writer.mapField(13, spec.getLabels());
+        }
+        if (!spec.getAttributes().isEmpty()) {
+            writer.mapField(15, spec.getAttributes());
+        }
+        return writer.stop();
+    }
+
+    /*
+     * struct WriteToken {
+     *   1: i64 issuanceTimestamp, 2: i64 expiryTimestamp, 3: TokenType tokenType, 4: optional bool lookup,
+     *   5: binary producerId, 6: binary ownerId, 7: string appName, 8: optional list<i64> indices,
+     *   9: optional map<string,string> labels, 10: optional map<string,string> attributes
+     * }
+     */
+    private static byte[] serializeWriteToken(Warp10TokenSpec spec, long now) {
+        CompactWriter writer = new CompactWriter();
+        writer.i64Field(1, spec.getIssuance(now));
+        writer.i64Field(2, spec.getExpiry(now));
+        writer.i32Field(3, TOKEN_TYPE_WRITE);
+        writer.binaryField(5, uuidToBytes(spec.getProducer()));
+        writer.binaryField(6, uuidToBytes(spec.getOwner()));
+        writer.binaryField(7, spec.getApplication().getBytes(StandardCharsets.UTF_8));
+        if (!spec.getLabels().isEmpty()) {
+            writer.mapField(9, spec.getLabels());
+        }
+        if (!spec.getAttributes().isEmpty()) {
+            writer.mapField(10, spec.getAttributes());
+        }
+        return writer.stop();
+    }
+
+    private static byte[] uuidToBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (msb >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (lsb >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * AES key wrap as defined in RFC 3394, with the default initial value.
+     */
+    static byte[] aesWrap(Cipher aes, byte[] data) {
+        int n = data.length / 8;
+        byte[] out = new byte[data.length + 8];
+        System.arraycopy(AES_WRAP_IV, 0, out, 0, 8);
+        System.arraycopy(data, 0, out, 8, data.length);
+
+        byte[] block = new byte[16];
+        try {
+            for (int j = 0; j < 6; j++) {
+                for (int i = 1; i <= n; i++) {
+                    System.arraycopy(out, 0, block, 0, 8);
+                    System.arraycopy(out, 8 * i, block, 8, 8);
+                    aes.doFinal(block, 0, 16, block, 0);
+                    long t = (long) n * j + i;
+                    for (int k = 0; k < 8; k++) {
+                        out[k] = (byte) (block[k] ^ (t >>> (56 - 8 * k)));
+                    }
+                    System.arraycopy(block, 8, out, 8 * i, 8);
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES key wrap failed", e);
+        }
+        return out;
+    }
+
+    /**
+     * SipHash-2-4 of data followed by its reverse, as Warp10's SipHashInline.hash24_palindromic.
+     */
+    static long sipHash24Palindromic(long k0, long k1, byte[] data) {
+        byte[] palindrome = new byte[data.length * 2];
+        System.arraycopy(data, 0, palindrome, 0, data.length);
+        for (int i = 0; i < data.length; i++) {
+            palindrome[palindrome.length - 1 - i] = data[i];
+        }
+        return sipHash24(k0, k1, palindrome);
+    }
+
+    static long sipHash24(long k0, long k1, byte[] data) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        int last = data.length - data.length % 8;
+        for (int offset = 0; offset < last; offset += 8) {
+            long m = readLongLE(data, offset);
+            v3 ^= m;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+
+        long b = ((long) data.length & 0xFFL) << 56;
+        for (int i = last; i < data.length; i++) {
+            b |= ((long) data[i] & 0xFFL) << (8 * (i - last));
+        }
+
+        v3 ^= b;
+        for (int r = 0; r < 2; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= b;
+        v2 ^= 0xFF;
+        for (int r = 0; r < 4; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    static String encodeOrderPreservingBase64(byte[] data) {
+        StringBuilder sb = new StringBuilder((data.length * 4 + 2) / 3);
+        int i = 0;
+        for (; i + 2 < data.length; i += 3) {
+            int bits = (data[i] & 0xFF) << 16 | (data[i + 1] & 0xFF) << 8 | (data[i + 2] & 0xFF);
+            sb.append(ORDER_PRESERVING_BASE64[bits >>> 18])
+                .append(ORDER_PRESERVING_BASE64[(bits >>> 12) & 0x3F])
+                .append(ORDER_PRESERVING_BASE64[(bits >>> 6) & 0x3F])
+                .append(ORDER_PRESERVING_BASE64[bits & 0x3F]);
+        }
+        if (data.length - i == 1) {
+            int bits = (data[i] & 0xFF) << 16;
+            sb.append(ORDER_PRESERVING_BASE64[bits >>> 18])
+                .append(ORDER_PRESERVING_BASE64[(bits >>> 12) & 0x3F]);
+        } else if (data.length - i == 2) {
+            int bits = (data[i] & 0xFF) << 16 | (data[i + 1] & 0xFF) << 8;
+            sb.append(ORDER_PRESERVING_BASE64[bits >>> 18])
+                .append(ORDER_PRESERVING_BASE64[(bits >>> 12) & 0x3F])
+                .append(ORDER_PRESERVING_BASE64[(bits >>> 6) & 0x3F]);
+        }
+        return sb.toString();
+    }
+
+    static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static long readLongLE(byte[] data, int offset) {
+        long value = 0L;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    /**
+     * Minimal thrift TCompactProtocol struct writer, fields must be written in increasing id order.
+     */
+    private static final class CompactWriter {
+        private static final int TYPE_I32 = 5;
+        private static final int TYPE_I64 = 6;
+        private static final int TYPE_BINARY = 8;
+        private static final int TYPE_LIST = 9;
+        private static final int TYPE_MAP = 11;
+
+        private byte[] buffer = new byte[128];
+        private int size = 0;
+        private int lastFieldId = 0;
+
+        void i32Field(int id, int value) {
+            fieldHeader(id, TYPE_I32);
+            varint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        void i64Field(int id, long value) {
+            fieldHeader(id, TYPE_I64);
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void binaryField(int id, byte[] value) {
+            fieldHeader(id, TYPE_BINARY);
+            binary(value);
+        }
+
+        void stringListField(int id, List<String> values) {
+            fieldHeader(id, TYPE_LIST);
+            listHeader(values.size(), TYPE_BINARY);
+            for (String value : values) {
+                binary(value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        void uuidListField(int id, List<UUID> values) {
+            fieldHeader(id, TYPE_LIST);
+            listHeader(values.size(), TYPE_BINARY);
+            for (UUID value : values) {
+                binary(uuidToBytes(value));
+            }
+        }
+
+        void mapField(int id, Map<String, String> values) {
+            fieldHeader(id, TYPE_MAP);
+            varint(values.size());
+            if (!values.isEmpty()) {
+                write((TYPE_BINARY << 4) | TYPE_BINARY);
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    binary(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                    binary(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        byte[] stop() {
+            write(0);
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void fieldHeader(int id, int type) {
+            int delta = id - lastFieldId;
+            if (delta > 0 && delta <= 15) {
+                write((delta << 4) | type);
+            } else {
+                write(type);
+                varint(((id << 1) ^ (id >> 31)) & 0xFFFFFFFFL);
+            }
+            lastFieldId = id;
+        }
+
+        private void listHeader(int count, int elementType) {
+            if (count < 15) {
+                write((count << 4) | elementType);
+            } else {
+                write(0xF0 | elementType);
+                varint(count);
+            }
+        }
+
+        private void binary(byte[] value) {
+            varint(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        private void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void write(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
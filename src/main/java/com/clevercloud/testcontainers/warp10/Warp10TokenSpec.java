@@ -0,0 +1,274 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Describes a Warp10 token, the same way the map given to the TOKENGEN function does.
+ * Owners, producers and applications of a READ token default to the token's own owner, producer and application
+ * (as for the default read token of a container), set them to an empty list to remove the restriction.
+ */
+public class Warp10TokenSpec {
+    public enum Type {
+        READ,
+        WRITE
+    }
+
+    private static final String DEFAULT_APP_NAME = "test";
+    private static final Duration DEFAULT_VALIDITY = Duration.ofDays(365);
+    private static final String CAPABILITY_PREFIX = ".cap:";
+
+    private final Type type;
+    private String id = null;
+    private String application = DEFAULT_APP_NAME;
+    private UUID owner = UUID.randomUUID();
+    private UUID producer = null;
+    private List<UUID> owners = null;
+    private List<UUID> producers = null;
+    private List<String> applications = null;
+    private Map<String, String> labels = new LinkedHashMap<>();
+    private Map<String, String> attributes = new LinkedHashMap<>();
+    private Long issuance = null;
+    private Long expiry = null;
+    private Duration validity = DEFAULT_VALIDITY;
+
+    private Warp10TokenSpec(Type type) {
+        this.type = type;
+    }
+
+    public static Warp10TokenSpec read() {
+        return new Warp10TokenSpec(Type.READ);
+    }
+
+    public static Warp10TokenSpec write() {
+        return new Warp10TokenSpec(Type.WRITE);
+    }
+
+    /**
+     * @param id identifier of the token, used to look it up with {@link Warp10Tokens#getToken(String)}.
+     */
+    public Warp10TokenSpec withId(String id) {
+        this.id = Objects.requireNonNull(id, "id");
+        return this;
+    }
+
+    public Warp10TokenSpec withApplication(String application) {
+        this.application = Objects.requireNonNull(application, "application");
+        return this;
+    }
+
+    /**
+     * @param owner owner of the written data for a WRITE token, billed owner for a READ token.
+     */
+    public Warp10TokenSpec withOwner(UUID owner) {
+        this.owner = Objects.requireNonNull(owner, "owner");
+        return this;
+    }
+
+    /**
+     * @param producer producer of the written data, defaults to the owner.
+     */
+    public Warp10TokenSpec withProducer(UUID producer) {
+        this.producer = Objects.requireNonNull(producer, "producer");
+        return this;
+    }
+
+    /**
+     * @param owners owners a READ token is allowed to read data from.
+     */
+    public Warp10TokenSpec withOwners(List<UUID> owners) {
+        this.owners = List.copyOf(owners);
+        return this;
+    }
+
+    /**
+     * @param producers producers a READ token is allowed to read data from.
+     */
+    public Warp10TokenSpec withProducers(List<UUID> producers) {
+        this.producers = List.copyOf(producers);
+        return this;
+    }
+
+    /**
+     * @param applications applications a READ token is allowed to read data from.
+     */
+    public Warp10TokenSpec withApplications(List<String> applications) {
+        this.applications = List.copyOf(applications);
+        return this;
+    }
+
+    public Warp10TokenSpec withLabel(String name, String value) {
+        this.labels.put(name, value);
+        return this;
+    }
+
+    public Warp10TokenSpec withLabels(Map<String, String> labels) {
+        this.labels.putAll(labels);
+        return this;
+    }
+
+    public Warp10TokenSpec withAttribute(String name, String value) {
+        this.attributes.put(name, value);
+        return this;
+    }
+
+    public Warp10TokenSpec withAttributes(Map<String, String> attributes) {
+        this.attributes.putAll(attributes);
+        return this;
+    }
+
+    /**
+     * Grants a capability to the token, stored as a {@code .cap:} attribute.
+     *
+     * @param name  name of the capability, without the .cap: prefix (e.g. "limits").
+     * @param value value of the capability, often empty.
+     */
+    public Warp10TokenSpec withCapability(String name, String value) {
+        return withAttribute(CAPABILITY_PREFIX + name, value);
+    }
+
+    /**
+     * @param issuance issuance timestamp in milliseconds since the epoch, defaults to the encoding time.
+     */
+    public Warp10TokenSpec withIssuance(long issuance) {
+        this.issuance = issuance;
+        return this;
+    }
+
+    /**
+     * @param expiry expiry timestamp in milliseconds since the epoch.
+     */
+    public Warp10TokenSpec withExpiry(long expiry) {
+        this.expiry = expiry;
+        return this;
+    }
+
+    /**
+     * @param validity validity of the token starting at its issuance, 1 year by default. Ignored if an expiry is set.
+     */
+    public Warp10TokenSpec withValidity(Duration validity) {
+        this.validity = Objects.requireNonNull(validity, "validity");
+        return this;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public UUID getProducer() {
+        return producer != null ? producer : owner;
+    }
+
+    public List<UUID> getOwners() {
+        return owners != null ? owners : List.of(getOwner());
+    }
+
+    public List<UUID> getProducers() {
+        return producers != null ? producers : List.of(getProducer());
+    }
+
+    public List<String> getApplications() {
+        return applications != null ? applications : List.of(application);
+    }
+
+    public Map<String, String> getLabels() {
+        return Collections.unmodifiableMap(labels);
+    }
+
+    public Map<String, String> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * @param now timestamp in milliseconds used when no issuance was set.
+     */
+    public long getIssuance(long now) {
+        return issuance != null ? issuance : now;
+    }
+
+    /**
+     * @param now timestamp in milliseconds used when no issuance was set.
+     */
+    public long getExpiry(long now) {
+        return expiry != null ? expiry : getIssuance(now) + validity.toMillis();
+    }
+
+    /**
+     * Renders the spec as a TOKENGEN call.
+     *
+     * @param now timestamp in milliseconds used when no issuance was set.
+     */
+    String toWarpScript(long now) {
+        StringBuilder sb = new StringBuilder("{\n");
+        if (id != null) {
+            sb.append("  'id' ").append(quote(id)).append('\n');
+        }
+        sb.append("  'type' '").append(type.name()).append("'\n");
+        sb.append("  'application' ").append(quote(application)).append('\n');
+        sb.append("  'owner' ").append(quote(owner.toString())).append('\n');
+        if (type == Type.WRITE) {
+            sb.append("  'producer' ").append(quote(getProducer().toString())).append('\n');
+        }
+        sb.append("  'issuance' ").append(getIssuance(now)).append('\n');
+        sb.append("  'expiry' ").append(getExpiry(now)).append('\n');
+        sb.append("  'labels' ");
+        appendMap(sb, labels);
+        sb.append("  'attributes' ");
+        appendMap(sb, attributes);
+        if (type == Type.READ) {
+            sb.append("  'owners' [");
+            getOwners().forEach(uuid -> sb.append(' ').append(quote(uuid.toString())));
+            sb.append(" ]\n  'producers' [");
+            getProducers().forEach(uuid -> sb.append(' ').append(quote(uuid.toString())));
+            sb.append(" ]\n  'applications' [");
+            getApplications().forEach(app -> sb.append(' ').append(quote(app)));
+            sb.append(" ]\n");
+        }
+        return sb.append("}\nTOKENGEN\n").toString();
+    }
+
+    private static void appendMap(StringBuilder sb, Map<String, String> map) {
+        sb.append('{');
+        map.forEach((key, value) -> sb.append(' ').append(quote(key)).append(' ').append(quote(value)));
+        sb.append(" }\n");
+    }
+
+    // WarpScript strings are URL decoded
+    private static String quote(String value) {
+        return "'" + value
+            .replace("%", "%25")
+            .replace("'", "%27")
+            .replace("\n", "%0A")
+            .replace("\r", "%0D") + "'";
+    }
+
+    @Override
+    public String toString() {
+        return "Warp10TokenSpec{" +
+            "id='" + id + '\'' +
+            ", type=" + type +
+            ", application='" + application + '\'' +
+            ", owner=" + owner +
+            ", producer=" + getProducer() +
+            ", labels=" + labels +
+            ", attributes=" + attributes +
+            '}';
+    }
+}
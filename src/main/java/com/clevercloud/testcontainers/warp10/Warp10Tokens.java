@@ -1,30 +1,77 @@
 package com.clevercloud.testcontainers.warp10;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class Warp10Tokens {
-    private List<TokenInfo> tokens;
+    private static final String READ_TOKEN_ID = "ReadToken";
+    private static final String WRITE_TOKEN_ID = "WriteToken";
+
+    private final List<TokenInfo> tokens;
+    // Tokens indexed by lower-cased id
+    private final Map<String, TokenInfo> tokensById;
 
     public Warp10Tokens(TokenInfo[] tokens) {
-        this.tokens = List.of(tokens);
+        this(Arrays.asList(tokens));
+    }
+
+    /**
+     * @param tokens the tokens, their ids being unique regardless of case.
+     * @throws IllegalArgumentException if two tokens have the same id
+     */
+    public Warp10Tokens(Collection<TokenInfo> tokens) {
+        this.tokens = List.copyOf(tokens);
+        Map<String, TokenInfo> index = new LinkedHashMap<>();
+        for (TokenInfo token : this.tokens) {
+            if (token.getId() != null && index.putIfAbsent(token.getId().toLowerCase(Locale.ROOT), token) != null) {
+                throw new IllegalArgumentException("Duplicate token id: " + token.getId());
+            }
+        }
+        this.tokensById = Collections.unmodifiableMap(index);
     }
 
     public List<TokenInfo> getTokens() {
         return tokens;
     }
 
+    /**
+     * @param id identifier of the token, case insensitive.
+     * @return the token, or null if there is no token with this id
+     */
+    public TokenInfo getToken(String id) {
+        return tokensById.get(id.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param id identifier of a token, case insensitive.
+     * @return whether it is the id of the default read or write token
+     */
+    public static boolean isDefaultId(String id) {
+        return READ_TOKEN_ID.equalsIgnoreCase(id) || WRITE_TOKEN_ID.equalsIgnoreCase(id);
+    }
+
     public TokenInfo getWriteToken() {
-        return tokens.stream()
-            .filter(token -> "WriteToken".equalsIgnoreCase(token.getId()))
-            .findFirst()
-            .orElse(null);
+        return getToken(WRITE_TOKEN_ID);
     }
 
     public TokenInfo getReadToken() {
-        return tokens.stream()
-            .filter(token -> "ReadToken".equalsIgnoreCase(token.getId()))
-            .findFirst()
-            .orElse(null);
+        return getToken(READ_TOKEN_ID);
+    }
+
+    /**
+     * @param others tokens to add.
+     * @return a new instance holding these tokens and the given ones.
+     */
+    public Warp10Tokens with(Collection<TokenInfo> others) {
+        List<TokenInfo> merged = new ArrayList<>(tokens);
+        merged.addAll(others);
+        return new Warp10Tokens(merged);
     }
 
     @Override
@@ -0,0 +1,238 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.lifecycle.Startable;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Several Warp10 nodes storing their data in a shared FoundationDB container (the standalone+ deployment of Warp10 3),
+ * on their own docker network.
+ * <p>
+ * FoundationDB starts first and its database is created, then its cluster file and client library are copied into
+ * the nodes, which start in parallel. All the nodes use the same crypto keys, so the tokens of any node are valid on
+ * all of them and {@link #getTokenEncoder()} mints tokens for the whole topology. Nodes can be customized through
+ * {@link #getNodes()} before starting. A stopped topology can be started again, on a new network.
+ */
+public class Warp10Topology implements Startable {
+    private static final DockerImageName DEFAULT_FOUNDATIONDB_IMAGE = DockerImageName.parse("foundationdb/foundationdb:7.1.61");
+    private static final int FOUNDATIONDB_PORT = 4500;
+    private static final String FOUNDATIONDB_ALIAS = "foundationdb";
+    private static final String FOUNDATIONDB_CLUSTER_FILE = "/var/fdb/fdb.cluster";
+    private static final String FOUNDATIONDB_CLIENT_LIBRARY = "/usr/lib/libfdb_c.so";
+    // Single replica in memory, test data doesn't need durability
+    private static final String FOUNDATIONDB_CONFIGURE = "configure new single memory";
+    private static final Duration FOUNDATIONDB_CONFIGURE_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final String WARP10_CLUSTER_FILE = "/opt/warp10/etc/fdb.cluster";
+    private static final String WARP10_NODE_ALIAS = "warp10-";
+
+    private Network network = Network.newNetwork();
+    private final GenericContainer<?> foundationDb;
+    private final List<Warp10Container> nodes = new ArrayList<>();
+    private final Warp10CryptoKeys cryptoKeys = Warp10CryptoKeys.generate();
+    // Copied to the nodes once, their content being read from FoundationDB on every start
+    private final FoundationDbFile clusterFile = new FoundationDbFile(Transferable.DEFAULT_FILE_MODE);
+    private final FoundationDbFile clientLibrary = new FoundationDbFile(0755);
+
+    /**
+     * @param nodeCount number of Warp10 nodes, using the default image.
+     */
+    public Warp10Topology(final int nodeCount) {
+        this(nodeCount, Warp10Container::new);
+    }
+
+    /**
+     * @param nodeCount number of Warp10 nodes.
+     * @param tag       tag of the Warp10 image, a 3.x one.
+     */
+    public Warp10Topology(final int nodeCount, final String tag) {
+        this(nodeCount, () -> new Warp10Container(tag));
+    }
+
+    private Warp10Topology(final int nodeCount, final Supplier<Warp10Container> node) {
+        if (nodeCount < 1) {
+            throw new IllegalArgumentException("At least one Warp10 node is required: " + nodeCount);
+        }
+        this.foundationDb = new GenericContainer<>(DEFAULT_FOUNDATIONDB_IMAGE)
+            .withNetwork(network)
+            .withNetworkAliases(FOUNDATIONDB_ALIAS)
+            // Advertise the address of the container on the network rather than a host port
+            .withEnv("FDB_NETWORKING_MODE", "container")
+            .withExposedPorts(FOUNDATIONDB_PORT)
+            .waitingFor(Wait.forListeningPort());
+
+        for (int i = 0; i < nodeCount; i++) {
+            Warp10Container container = node.get()
+                .withNetwork(network)
+                .withNetworkAliases(WARP10_NODE_ALIAS + i)
+                .withCryptoKeys(cryptoKeys)
+                .withInJvmTokenGeneration()
+                .withCopyToContainer(clusterFile, WARP10_CLUSTER_FILE)
+                .withCopyToContainer(clientLibrary, FOUNDATIONDB_CLIENT_LIBRARY);
+            container.withConfigOverride("foundationdb", foundationDbConfig());
+            nodes.add(container);
+        }
+    }
+
+    /**
+     * @param image FoundationDB image, its client library must be compatible with the one Warp10 is built with.
+     * @return this topology.
+     */
+    public Warp10Topology withFoundationDbImage(final DockerImageName image) {
+        foundationDb.setDockerImageName(image.asCanonicalNameString());
+        return this;
+    }
+
+    /**
+     * @return the Warp10 nodes, to customize before starting or to query once started
+     */
+    public List<Warp10Container> getNodes() {
+        return nodes;
+    }
+
+    public Warp10Container getNode(final int index) {
+        return nodes.get(index);
+    }
+
+    public GenericContainer<?> getFoundationDb() {
+        return foundationDb;
+    }
+
+    /**
+     * @return the network of the topology, replaced by a new one when the topology stops
+     */
+    public Network getNetwork() {
+        return network;
+    }
+
+    public Warp10CryptoKeys getCryptoKeys() {
+        return cryptoKeys;
+    }
+
+    /**
+     * @return an encoder minting tokens valid on all the nodes
+     */
+    public Warp10TokenEncoder getTokenEncoder() {
+        return nodes.get(0).getTokenEncoder();
+    }
+
+    /**
+     * Starts FoundationDB, creates its database, then starts the Warp10 nodes in parallel.
+     */
+    @Override
+    public void start() {
+        try {
+            foundationDb.start();
+            clusterFile.content = createDatabase().getBytes(StandardCharsets.US_ASCII);
+            clientLibrary.content = foundationDb.copyFileFromContainer(FOUNDATIONDB_CLIENT_LIBRARY, InputStream::readAllBytes);
+            new Warp10ContainerGroup(nodes).start();
+        } catch (RuntimeException e) {
+            // Don't leak FoundationDB, already started nodes or the network
+            try {
+                stop();
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the database, retrying until the FoundationDB server accepts commands.
+     *
+     * @return the content of the cluster file
+     */
+    private String createDatabase() {
+        long deadline = System.nanoTime() + FOUNDATIONDB_CONFIGURE_TIMEOUT.toNanos();
+        try {
+            while (true) {
+                ExecResult result = foundationDb.execInContainer("fdbcli", "--exec", FOUNDATIONDB_CONFIGURE, "--timeout", "10");
+                // A restarted server already has its database
+                if (result.getExitCode() == 0 || result.getStdout().contains("Database already exists")) {
+                    break;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Failed to create the FoundationDB database: " + result.getStdout() + result.getStderr());
+                }
+                Thread.sleep(500);
+            }
+            return foundationDb.copyFileFromContainer(FOUNDATIONDB_CLUSTER_FILE,
+                stream -> new String(stream.readAllBytes(), StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Points the storage, directory and egress of Warp10 at the cluster file.
+     */
+    private static Map<String, String> foundationDbConfig() {
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("backend", "fdb");
+        config.put("fdb.clusterfile", WARP10_CLUSTER_FILE);
+        config.put("directory.fdb.clusterfile", WARP10_CLUSTER_FILE);
+        config.put("store.fdb.clusterfile", WARP10_CLUSTER_FILE);
+        config.put("egress.fdb.clusterfile", WARP10_CLUSTER_FILE);
+        return config;
+    }
+
+    @Override
+    public void stop() {
+        try {
+            nodes.parallelStream().forEach(Warp10Container::stop);
+            foundationDb.stop();
+        } finally {
+            network.close();
+            // Created by docker on first use only, for the next start
+            network = Network.newNetwork();
+            foundationDb.withNetwork(network);
+            nodes.forEach(node -> node.withNetwork(network));
+        }
+    }
+
+    /**
+     * A file of FoundationDB copied to the nodes. Copies are keyed by their {@link Transferable}, so the same instance
+     * is copied on every start with the content of the current FoundationDB container.
+     */
+    private static final class FoundationDbFile implements Transferable {
+        private final int fileMode;
+        private volatile byte[] content = new byte[0];
+
+        FoundationDbFile(int fileMode) {
+            this.fileMode = fileMode;
+        }
+
+        @Override
+        public int getFileMode() {
+            return fileMode;
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JVM and storage settings of the Warp10 process, see {@link Warp10Container#withTuning(Warp10Tuning)}.
+ * <p>
+ * The heap and JVM options are passed to the image start script through the WARP10_HEAP, WARP10_HEAP_MAX and
+ * JAVA_OPTS environment variables, the other settings are written as configuration overrides. Sizes use the docker
+ * syntax: a number of bytes with an optional k, m, g or t suffix.
+ * <p>
+ * {@link #validate(long)} rejects settings Warp10 can't start or run with, and returns warnings for the ones which
+ * are only unusual.
+ */
+public class Warp10Tuning {
+    /**
+     * Garbage collectors, G1 being the one the start script selects.
+     */
+    public enum Gc {
+        G1("-XX:+UseG1GC"),
+        PARALLEL("-XX:+UseParallelGC"),
+        SERIAL("-XX:+UseSerialGC"),
+        Z("-XX:+UseZGC"),
+        SHENANDOAH("-XX:+UseShenandoahGC");
+
+        private final String option;
+
+        Gc(String option) {
+            this.option = option;
+        }
+    }
+
+    /**
+     * WarpScript limits, each one having a soft value applied by default and a hard value up to which a script can
+     * raise it with a capability or LIMIT functions.
+     */
+    public enum Limit {
+        OPS("warpscript.maxops"),
+        FETCH("warpscript.maxfetch"),
+        GTS("warpscript.maxgts"),
+        BUCKETS("warpscript.maxbuckets"),
+        DEPTH("warpscript.maxdepth"),
+        LOOP("warpscript.maxloop"),
+        RECURSION("warpscript.maxrecursion"),
+        SYMBOLS("warpscript.maxsymbols"),
+        GEOCELLS("warpscript.maxgeocells"),
+        PIXELS("warpscript.maxpixels"),
+        JSON("warpscript.maxjson");
+
+        private final String key;
+
+        Limit(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+)([kmgt]?)");
+    private static final long MIN_HEAP = 64L * 1024 * 1024;
+    // Jetty needs a thread per acceptor and selector, plus at least one to serve requests
+    private static final int MIN_REQUEST_THREADS = 1;
+
+    private long heap = 0L;
+    private long heapMax = 0L;
+    private Gc gc = null;
+    private final List<String> jvmOptions = new ArrayList<>();
+    private long levelDbCacheSize = 0L;
+    private int levelDbMaxOpenFiles = 0;
+    private final Map<Limit, long[]> limits = new EnumMap<>(Limit.class);
+    private int acceptors = 0;
+    private int selectors = 0;
+    private int maxThreads = 0;
+    private final Map<String, String> config = new LinkedHashMap<>();
+
+    private Warp10Tuning() {
+    }
+
+    public static Warp10Tuning create() {
+        return new Warp10Tuning();
+    }
+
+    /**
+     * @param size initial and maximum heap size.
+     */
+    public Warp10Tuning withHeap(String size) {
+        return withHeap(size, size);
+    }
+
+    /**
+     * @param initial initial heap size (-Xms).
+     * @param max     maximum heap size (-Xmx).
+     */
+    public Warp10Tuning withHeap(String initial, String max) {
+        this.heap = parseSize(initial);
+        this.heapMax = parseSize(max);
+        return this;
+    }
+
+    public Warp10Tuning withGc(Gc gc) {
+        this.gc = Objects.requireNonNull(gc, "gc");
+        return this;
+    }
+
+    /**
+     * @param option additional JVM option, appended after the options of the start script.
+     */
+    public Warp10Tuning withJvmOption(String option) {
+        if (option == null || !option.startsWith("-")) {
+            throw new IllegalArgumentException("Invalid JVM option: " + option);
+        }
+        this.jvmOptions.add(option);
+        return this;
+    }
+
+    /**
+     * @param size size of the LevelDB block cache.
+     */
+    public Warp10Tuning withLevelDbCacheSize(String size) {
+        this.levelDbCacheSize = parseSize(size);
+        return this;
+    }
+
+    public Warp10Tuning withLevelDbMaxOpenFiles(int maxOpenFiles) {
+        this.levelDbMaxOpenFiles = maxOpenFiles;
+        return this;
+    }
+
+    /**
+     * @param limit WarpScript limit.
+     * @param value soft and hard value.
+     */
+    public Warp10Tuning withLimit(Limit limit, long value) {
+        return withLimit(limit, value, value);
+    }
+
+    /**
+     * @param limit WarpScript limit.
+     * @param soft  value applied by default.
+     * @param hard  maximum value a script can raise the limit to.
+     */
+    public Warp10Tuning withLimit(Limit limit, long soft, long hard) {
+        this.limits.put(Objects.requireNonNull(limit, "limit"), new long[]{soft, hard});
+        return this;
+    }
+
+    /**
+     * Sizes the Jetty server handling the HTTP endpoints.
+     *
+     * @param acceptors  number of threads accepting connections.
+     * @param selectors  number of threads selecting ready connections.
+     * @param maxThreads size of the thread pool, acceptors and selectors included.
+     */
+    public Warp10Tuning withHttpThreads(int acceptors, int selectors, int maxThreads) {
+        this.acceptors = acceptors;
+        this.selectors = selectors;
+        this.maxThreads = maxThreads;
+        return this;
+    }
+
+    /**
+     * @param key   configuration key not covered by the other settings.
+     * @param value its value.
+     */
+    public Warp10Tuning withConfig(String key, String value) {
+        this.config.put(Objects.requireNonNull(key, "key"), Objects.requireNonNull(value, "value"));
+        return this;
+    }
+
+    /**
+     * Checks the settings against the limits Warp10 and the JVM enforce.
+     *
+     * @param availableMemory memory available to the container in bytes, 0 when unknown.
+     * @return warnings about settings which are allowed but likely mistakes
+     * @throws IllegalArgumentException if a setting would prevent Warp10 from starting or running scripts.
+     */
+    public List<String> validate(long availableMemory) {
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+
+        if (heapMax > 0) {
+            if (heap > heapMax) {
+                errors.add("initial heap " + heap + " is larger than the maximum heap " + heapMax);
+            }
+            if (heapMax < MIN_HEAP) {
+                errors.add("maximum heap " + heapMax + " is below " + MIN_HEAP);
+            }
+            if (availableMemory > 0 && heapMax > availableMemory) {
+                errors.add("maximum heap " + heapMax + " is larger than the available memory " + availableMemory);
+            } else if (availableMemory > 0 && heapMax + levelDbCacheSize > availableMemory * 3 / 4) {
+                warnings.add("heap and LevelDB cache use more than 3/4 of the available memory " + availableMemory);
+            }
+            if (heap > 0 && heap < heapMax) {
+                warnings.add("initial heap is smaller than the maximum heap, benchmarks will include heap growth");
+            }
+        }
+        if (levelDbMaxOpenFiles < 0) {
+            errors.add("LevelDB max open files is negative: " + levelDbMaxOpenFiles);
+        }
+        limits.forEach((limit, values) -> {
+            if (values[0] < 1 || values[1] < 1) {
+                errors.add(limit.key + " must be positive: " + values[0] + "/" + values[1]);
+            } else if (values[0] > values[1]) {
+                errors.add(limit.key + " soft value " + values[0] + " is above its hard value " + values[1]);
+            }
+        });
+        if (maxThreads != 0 || acceptors != 0 || selectors != 0) {
+            if (acceptors < 1 || selectors < 1) {
+                errors.add("HTTP acceptors and selectors must be positive: " + acceptors + "/" + selectors);
+            } else if (maxThreads < acceptors + selectors + MIN_REQUEST_THREADS) {
+                errors.add("HTTP thread pool " + maxThreads + " leaves no thread for requests with "
+                    + acceptors + " acceptors and " + selectors + " selectors");
+            }
+        }
+        for (String option : jvmOptions) {
+            if (option.startsWith("-Xmx") || option.startsWith("-Xms")) {
+                errors.add("heap is set with withHeap, not with the JVM option " + option);
+            } else if (gc != null && option.matches("-XX:\\+Use\\w+GC")) {
+                errors.add("GC is set with withGc, not with the JVM option " + option);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid Warp10 tuning: " + String.join(", ", errors));
+        }
+        return warnings;
+    }
+
+    /**
+     * @return the configuration overrides
+     */
+    Map<String, String> config() {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        if (levelDbCacheSize > 0) {
+            overrides.put("leveldb.cache.size", String.valueOf(levelDbCacheSize));
+        }
+        if (levelDbMaxOpenFiles > 0) {
+            overrides.put("leveldb.maxopenfiles", String.valueOf(levelDbMaxOpenFiles));
+        }
+        limits.forEach((limit, values) -> {
+            overrides.put(limit.key, String.valueOf(values[0]));
+            overrides.put(limit.key + ".hard", String.valueOf(values[1]));
+        });
+        if (maxThreads > 0) {
+            overrides.put("standalone.acceptors", String.valueOf(acceptors));
+            overrides.put("standalone.selectors", String.valueOf(selectors));
+            overrides.put("standalone.jetty.threadpool", String.valueOf(maxThreads));
+        }
+        overrides.putAll(config);
+        return overrides;
+    }
+
+    /**
+     * @return the environment variables read by the start script
+     */
+    Map<String, String> environment() {
+        Map<String, String> env = new LinkedHashMap<>();
+        if (heapMax > 0) {
+            env.put("WARP10_HEAP", toMegabytes(heap > 0 ? heap : heapMax));
+            env.put("WARP10_HEAP_MAX", toMegabytes(heapMax));
+        }
+        List<String> options = new ArrayList<>();
+        if (gc != null && gc != Gc.G1) {
+            // The start script selects G1, later options take precedence
+            options.add("-XX:-UseG1GC");
+            options.add(gc.option);
+        }
+        options.addAll(jvmOptions);
+        if (!options.isEmpty()) {
+            env.put("JAVA_OPTS", String.join(" ", options));
+        }
+        return Collections.unmodifiableMap(env);
+    }
+
+    static long parseSize(String size) {
+        Matcher matcher = size == null ? null : SIZE_PATTERN.matcher(size.trim().toLowerCase(Locale.ROOT));
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        long value = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit.isEmpty()) {
+            return value;
+        }
+        try {
+            return Math.multiplyExact(value, 1L << (10 * "kmgt".indexOf(unit) + 10));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Size too large: " + size, e);
+        }
+    }
+
+    private static String toMegabytes(long bytes) {
+        return ((bytes + 1024 * 1024 - 1) / (1024 * 1024)) + "m";
+    }
+}
@@ -0,0 +1,218 @@
+package com.clevercloud.testcontainers.warp10;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.LogContainerCmd;
+import com.github.dockerjava.api.model.Frame;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Waits for Warp10 to be ready by watching the container log for its "started" markers and confirming with a real
+ * WarpScript execution on /api/v0/exec.
+ * <p>
+ * The exec endpoint is probed as soon as a marker shows up in the log, and every poll interval otherwise (so an
+ * image logging differently is still detected). The duration of each stage is available from {@link #getReport()}.
+ */
+public class Warp10WaitStrategy extends AbstractWaitStrategy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Warp10WaitStrategy.class);
+
+    public static final Pattern DEFAULT_STARTED_PATTERN =
+        Pattern.compile("Warp 10 (is )?(started|listens|ready)|Started ServerConnector", Pattern.CASE_INSENSITIVE);
+
+    private static final String EXEC_API = "/api/v0/exec";
+    private static final String PROBE_SCRIPT = "42";
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(250);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final int port;
+    private Pattern startedPattern = DEFAULT_STARTED_PATTERN;
+    private Duration pollInterval = DEFAULT_POLL_INTERVAL;
+    private Instant logsSince = null;
+    private volatile Report report = null;
+
+    /**
+     * @param port exposed port of the Warp10 HTTP endpoint.
+     */
+    public Warp10WaitStrategy(int port) {
+        this.port = port;
+    }
+
+    /**
+     * @param startedPattern pattern of a log line written once Warp10 is started, probing starts as soon as it matches.
+     */
+    public Warp10WaitStrategy withStartedPattern(Pattern startedPattern) {
+        this.startedPattern = Objects.requireNonNull(startedPattern, "startedPattern");
+        return this;
+    }
+
+    /**
+     * @param pollInterval delay between two exec probes while no started marker has been seen.
+     */
+    public Warp10WaitStrategy withPollInterval(Duration pollInterval) {
+        this.pollInterval = Objects.requireNonNull(pollInterval, "pollInterval");
+        return this;
+    }
+
+    /**
+     * @param logsSince time from which the log is watched, e.g. when Warp10 restarts in a container whose log holds the
+     *                  markers of its previous start. Docker filters the log by the second.
+     */
+    public Warp10WaitStrategy withLogsSince(Instant logsSince) {
+        this.logsSince = Objects.requireNonNull(logsSince, "logsSince");
+        return this;
+    }
+
+    /**
+     * @return the timings of the last wait, or null if it didn't complete
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    @Override
+    protected void waitUntilReady() {
+        long start = System.nanoTime();
+        long deadline = start + startupTimeout.toNanos();
+        CountDownLatch started = new CountDownLatch(1);
+        long[] markerTime = {-1L};
+
+        OkHttpClient client = new OkHttpClient.Builder()
+            .callTimeout(PROBE_TIMEOUT)
+            .build();
+
+        LogContainerCmd logsCmd = DockerClientFactory.instance().client()
+            .logContainerCmd(waitStrategyTarget.getContainerId())
+            .withFollowStream(true)
+            .withStdOut(true)
+            .withStdErr(true);
+        if (logsSince != null) {
+            logsCmd.withSince((int) logsSince.getEpochSecond());
+        }
+        ResultCallback.Adapter<Frame> logs = logsCmd.exec(new ResultCallback.Adapter<Frame>() {
+                @Override
+                public void onNext(Frame frame) {
+                    if (started.getCount() > 0 && startedPattern.matcher(new String(frame.getPayload(), StandardCharsets.UTF_8)).find()) {
+                        markerTime[0] = System.nanoTime();
+                        started.countDown();
+                    }
+                }
+            });
+
+        try {
+            int probes = 0;
+            while (System.nanoTime() < deadline) {
+                boolean markerSeen = started.await(pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+                probes++;
+                if (probe(client)) {
+                    long end = System.nanoTime();
+                    report = new Report(
+                        markerSeen ? Duration.ofNanos(markerTime[0] - start) : null,
+                        Duration.ofNanos(end - (markerSeen ? markerTime[0] : start)),
+                        Duration.ofNanos(end - start),
+                        probes);
+                    LOGGER.info("Warp10 is ready: {}", report);
+                    return;
+                }
+                if (markerSeen) {
+                    // The latch no longer paces the probes
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContainerLaunchException("Interrupted while waiting for Warp10", e);
+        } finally {
+            try {
+                logs.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close the log stream: {}", e.getMessage());
+            }
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+
+        throw new ContainerLaunchException("Timed out waiting for Warp10 to be ready on " + EXEC_API);
+    }
+
+    private boolean probe(OkHttpClient client) {
+        try {
+            Request request = new Request.Builder()
+                .url(new URL("http", waitStrategyTarget.getHost(), waitStrategyTarget.getMappedPort(port), EXEC_API))
+                .post(RequestBody.create(PROBE_SCRIPT, MediaType.get("text/plain")))
+                .build();
+            try (Response response = client.newCall(request).execute()) {
+                return response.isSuccessful();
+            }
+        } catch (IOException e) {
+            LOGGER.trace("Warp10 is not ready yet: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Timings of a wait for Warp10 readiness.
+     */
+    public static class Report {
+        private final Duration logMarker;
+        private final Duration probe;
+        private final Duration total;
+        private final int probes;
+
+        Report(Duration logMarker, Duration probe, Duration total, int probes) {
+            this.logMarker = logMarker;
+            this.probe = probe;
+            this.total = total;
+            this.probes = probes;
+        }
+
+        /**
+         * @return the time until a started marker was logged, or null if none was seen
+         */
+        public Duration getLogMarker() {
+            return logMarker;
+        }
+
+        /**
+         * @return the time between the marker (or the start of the wait) and a successful exec probe
+         */
+        public Duration getProbe() {
+            return probe;
+        }
+
+        public Duration getTotal() {
+            return total;
+        }
+
+        public int getProbes() {
+            return probes;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                "logMarker=" + logMarker +
+                ", probe=" + probe +
+                ", total=" + total +
+                ", probes=" + probes +
+                '}';
+        }
+    }
+}
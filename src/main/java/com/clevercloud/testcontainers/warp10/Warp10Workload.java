@@ -0,0 +1,477 @@
+package com.clevercloud.testcontainers.warp10;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic load against Warp10, see {@link Warp10Client#workload()}.
+ * <p>
+ * Series are the combinations of the classes and of the label values, each one having a value type. Updates write
+ * points round-robin over the series, queries fetch a random series over a recent timespan, and custom WarpScript can
+ * be executed too. Each operation is scheduled at a fixed rate.
+ * <p>
+ * The workload is open-loop: operations are sent when they are scheduled, without waiting for the previous ones to
+ * complete, and their latency is measured from the time they were scheduled. A slow response therefore shows in the
+ * latencies of all the operations delayed behind it instead of lowering the load (coordinated omission).
+ */
+public class Warp10Workload {
+    static final String UPDATE = "update";
+    static final String QUERY = "query";
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(10);
+    // Warp10 default time unit
+    private static final long MICROS_PER_MILLI = 1000L;
+    private static final double MAX_POINTS_PER_SECOND_PER_SERIES = 1_000_000.0;
+
+    private final Warp10Client client;
+
+    private int classes = 1;
+    private final Map<String, Integer> labels = new LinkedHashMap<>();
+    private Warp10GTS.Type[] valueTypes = {Warp10GTS.Type.DOUBLE};
+    private double pointRate = 0.0;
+    private int pointsPerUpdate = 1;
+    private double queryRate = 0.0;
+    private Duration queryTimespan = Duration.ofMinutes(1);
+    private final Map<String, Exec> execs = new LinkedHashMap<>();
+    private Duration duration = Duration.ofSeconds(10);
+    private Duration warmup = Duration.ZERO;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private long seed = System.nanoTime();
+    private final AtomicLong seriesCursor = new AtomicLong();
+
+    Warp10Workload(Warp10Client client) {
+        this.client = client;
+    }
+
+    /**
+     * @param classes number of classes, named workload.0, workload.1...
+     * @return this workload.
+     */
+    public Warp10Workload withClasses(int classes) {
+        if (classes < 1) {
+            throw new IllegalArgumentException("classes must be at least 1: " + classes);
+        }
+        this.classes = classes;
+        return this;
+    }
+
+    /**
+     * Adds a label to all the series, multiplying their number by its number of values.
+     *
+     * @param name   name of the label.
+     * @param values number of values, named v0, v1...
+     * @return this workload.
+     */
+    public Warp10Workload withLabel(String name, int values) {
+        if (values < 1) {
+            throw new IllegalArgumentException("values must be at least 1: " + values);
+        }
+        this.labels.put(Objects.requireNonNull(name, "name"), values);
+        return this;
+    }
+
+    /**
+     * @param types value types of the series, assigned round-robin. Doubles by default.
+     * @return this workload.
+     */
+    public Warp10Workload withValueTypes(Warp10GTS.Type... types) {
+        if (types.length == 0) {
+            throw new IllegalArgumentException("At least one value type is required");
+        }
+        this.valueTypes = types.clone();
+        return this;
+    }
+
+    /**
+     * @param pointsPerSecond points written per second, at most one per microsecond and per series.
+     * @param pointsPerUpdate points sent by each update request, the update rate being their ratio. When it exceeds the
+     *                        number of series, the points of a series are one microsecond apart.
+     * @return this workload.
+     */
+    public Warp10Workload withPointRate(double pointsPerSecond, int pointsPerUpdate) {
+        if (pointsPerSecond < 0.0 || pointsPerUpdate < 1) {
+            throw new IllegalArgumentException("Invalid point rate: " + pointsPerSecond + "/s by " + pointsPerUpdate);
+        }
+        this.pointRate = pointsPerSecond;
+        this.pointsPerUpdate = pointsPerUpdate;
+        return this;
+    }
+
+    /**
+     * @param queriesPerSecond fetches of a random series per second, executed as WarpScript.
+     * @param timespan         time range of each fetch, ending now.
+     * @return this workload.
+     */
+    public Warp10Workload withQueryRate(double queriesPerSecond, Duration timespan) {
+        if (queriesPerSecond < 0.0 || timespan.isNegative() || timespan.isZero()) {
+            throw new IllegalArgumentException("Invalid query rate: " + queriesPerSecond + "/s over " + timespan);
+        }
+        this.queryRate = queriesPerSecond;
+        this.queryTimespan = timespan;
+        return this;
+    }
+
+    /**
+     * Adds a WarpScript executed at a fixed rate. The read and write tokens are stored in the readToken and writeToken
+     * variables before it runs.
+     *
+     * @param name            name of the operation in the report.
+     * @param execsPerSecond  executions per second.
+     * @param script          the WarpScript code.
+     * @return this workload.
+     */
+    public Warp10Workload withExec(String name, double execsPerSecond, String script) {
+        if (UPDATE.equals(name) || QUERY.equals(name)) {
+            throw new IllegalArgumentException("Reserved operation name: " + name);
+        }
+        if (execsPerSecond < 0.0) {
+            throw new IllegalArgumentException("Invalid exec rate: " + execsPerSecond);
+        }
+        this.execs.put(Objects.requireNonNull(name, "name"), new Exec(execsPerSecond, Objects.requireNonNull(script, "script")));
+        return this;
+    }
+
+    /**
+     * @param duration measured duration of the run, 10 seconds by default.
+     * @return this workload.
+     */
+    public Warp10Workload withDuration(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Invalid duration: " + duration);
+        }
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * @param warmup time the workload runs before measuring, at the same rates.
+     * @return this workload.
+     */
+    public Warp10Workload withWarmup(Duration warmup) {
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("Invalid warmup: " + warmup);
+        }
+        this.warmup = warmup;
+        return this;
+    }
+
+    /**
+     * @param maxInFlight maximum number of requests sent at the same time, 256 by default. Operations scheduled beyond
+     *                    wait for a request to complete, which counts in their latency.
+     * @return this workload.
+     */
+    public Warp10Workload withMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * @param seed seed of the generated values and queried series, for reproducible runs.
+     * @return this workload.
+     */
+    public Warp10Workload withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @return the number of series, classes times the label value combinations
+     */
+    public long getSeriesCount() {
+        long count = classes;
+        for (int values : labels.values()) {
+            count = Math.multiplyExact(count, values);
+        }
+        return count;
+    }
+
+    /**
+     * Runs the workload on the calling thread, which schedules the operations, and waits for the last ones to complete.
+     * Requests still running a minute after the end of the run are cancelled and counted as errors.
+     *
+     * @return the report of the measured operations
+     */
+    public Warp10WorkloadReport run() throws InterruptedException {
+        // Points of a series need distinct timestamps, or Warp10 overwrites them
+        if (pointRate / getSeriesCount() > MAX_POINTS_PER_SECOND_PER_SERIES) {
+            throw new IllegalStateException("More than one point per microsecond and per series: " + pointRate + "/s over " + getSeriesCount() + " series");
+        }
+        List<Operation> operations = new ArrayList<>();
+        if (pointRate > 0.0) {
+            operations.add(new Operation(UPDATE, pointRate / pointsPerUpdate, this::update));
+        }
+        if (queryRate > 0.0) {
+            operations.add(new Operation(QUERY, queryRate, this::query));
+        }
+        String tokens = "'" + quote(client.getReadToken()) + "' 'readToken' STORE '" + quote(client.getWriteToken()) + "' 'writeToken' STORE\n";
+        execs.forEach((name, exec) -> {
+            if (exec.rate > 0.0) {
+                operations.add(new Operation(name, exec.rate, (random, timestamp) -> execRequest(tokens + exec.script)));
+            }
+        });
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("The workload has no operation, set a point, query or exec rate");
+        }
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxInFlight);
+        dispatcher.setMaxRequestsPerHost(maxInFlight);
+        OkHttpClient httpClient = client.httpClient().newBuilder().dispatcher(dispatcher).build();
+        SplittableRandom random = new SplittableRandom(seed);
+        AtomicLong pending = new AtomicLong();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long startMicros = System.currentTimeMillis() * MICROS_PER_MILLI;
+        try {
+            while (true) {
+                // Next operation due, whether or not the previous ones completed
+                Operation next = null;
+                for (Operation operation : operations) {
+                    if (next == null || operation.nextAt(start) < next.nextAt(start)) {
+                        next = operation;
+                    }
+                }
+                long scheduledAt = next.nextAt(start);
+                if (scheduledAt >= end) {
+                    break;
+                }
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    continue;
+                }
+
+                long timestamp = startMicros + (scheduledAt - start) / 1000L;
+                next.send(httpClient, next.request.create(random, timestamp), scheduledAt, scheduledAt >= measureFrom, pending);
+            }
+
+            long drainUntil = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (pending.get() > 0 && System.nanoTime() < drainUntil) {
+                Thread.sleep(DRAIN_POLL_INTERVAL.toMillis());
+            }
+        } finally {
+            dispatcher.cancelAll();
+            dispatcher.executorService().shutdown();
+        }
+
+        Map<String, Warp10WorkloadReport.Operation> results = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            results.put(operation.name, operation.report(duration));
+        }
+        return new Warp10WorkloadReport(duration, results);
+    }
+
+    private PendingRequest update(SplittableRandom random, long timestamp) {
+        Warp10LineBuffer lines = new Warp10LineBuffer(pointsPerUpdate * 64);
+        lines.reset();
+        long seriesCount = getSeriesCount();
+        long first = seriesCursor.getAndAdd(pointsPerUpdate);
+        for (int i = 0; i < pointsPerUpdate; i++) {
+            long index = (first + i) % seriesCount;
+            // A series comes back every seriesCount points of the request, one microsecond later
+            lines.startPoint(series(index), timestamp + i / seriesCount);
+            switch (valueTypes[(int) (index % valueTypes.length)]) {
+                case LONG:
+                    lines.writeLong(random.nextLong(1_000_000L));
+                    break;
+                case BOOLEAN:
+                    lines.writeBoolean(random.nextBoolean());
+                    break;
+                case STRING:
+                    lines.writeString("value-" + random.nextInt(100));
+                    break;
+                default:
+                    lines.writeDouble(random.nextDouble() * 100.0);
+            }
+            lines.endPoint();
+        }
+
+        Request request = new Request.Builder()
+            .url(client.getBaseUrl() + Warp10Client.UPDATE_API)
+            .header(Warp10Client.TOKEN_HEADER, client.getWriteToken())
+            .post(RequestBody.create(lines.toAsciiString(), Warp10Client.TEXT))
+            .build();
+        return new PendingRequest(request, pointsPerUpdate);
+    }
+
+    private PendingRequest query(SplittableRandom random, long timestamp) {
+        Warp10Series series = series(random.nextLong(getSeriesCount()));
+        StringBuilder script = new StringBuilder("[ '").append(quote(client.getReadToken())).append("' '")
+            .append(quote(series.getClassName())).append("' {");
+        series.getLabels().forEach((name, value) -> script.append(" '").append(quote(name)).append("' '").append(quote(value)).append('\''));
+        script.append(" } NOW ").append(TimeUnit.NANOSECONDS.toMicros(queryTimespan.toNanos())).append(" ] FETCH");
+        return execRequest(script.toString());
+    }
+
+    private PendingRequest execRequest(String script) {
+        Request request = new Request.Builder()
+            .url(client.getBaseUrl() + Warp10Client.EXEC_API)
+            .post(RequestBody.create(script, Warp10Client.TEXT))
+            .build();
+        return new PendingRequest(request, 0);
+    }
+
+    /**
+     * @param index index of the series, the class varying first then each label in order.
+     */
+    Warp10Series series(long index) {
+        long rest = index;
+        String className = "workload." + (rest % classes);
+        rest /= classes;
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> label : labels.entrySet()) {
+            values.put(label.getKey(), "v" + (rest % label.getValue()));
+            rest /= label.getValue();
+        }
+        return Warp10Series.of(className, values);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder();
+        Warp10Series.encode(sb, value);
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        PendingRequest create(SplittableRandom random, long timestamp);
+    }
+
+    private static final class Exec {
+        private final double rate;
+        private final String script;
+
+        Exec(double rate, String script) {
+            this.rate = rate;
+            this.script = script;
+        }
+    }
+
+    private static final class PendingRequest {
+        private final Request request;
+        private final int points;
+
+        PendingRequest(Request request, int points) {
+            this.request = request;
+            this.points = points;
+        }
+    }
+
+    private static final class Operation {
+        private final String name;
+        private final double rate;
+        private final double intervalNanos;
+        private final RequestFactory request;
+        private final Warp10LatencyHistogram latencies = new Warp10LatencyHistogram();
+        private long errors = 0L;
+        private long points = 0L;
+        private long sent = 0L;
+        private long scheduled = 0L;
+        // Set once reported, the requests completing afterwards are ignored
+        private boolean reported = false;
+
+        Operation(String name, double rate, RequestFactory request) {
+            this.name = name;
+            this.rate = rate;
+            this.intervalNanos = 1e9 / rate;
+            this.request = request;
+        }
+
+        long nextAt(long start) {
+            return start + (long) (sent * intervalNanos);
+        }
+
+        void send(OkHttpClient httpClient, PendingRequest request, long scheduledAt, boolean measured, AtomicLong pending) {
+            sent++;
+            if (measured) {
+                scheduled++;
+            }
+            pending.incrementAndGet();
+            httpClient.newCall(request.request).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (response) {
+                        // Read the whole response, as a client would
+                        BufferedSource source = response.body().source();
+                        Buffer buffer = new Buffer();
+                        while (source.read(buffer, 8192) != -1) {
+                            buffer.clear();
+                        }
+                        if (measured) {
+                            if (response.isSuccessful()) {
+                                succeeded(System.nanoTime() - scheduledAt, request.points);
+                            } else {
+                                failed();
+                            }
+                        }
+                    } catch (IOException e) {
+                        if (measured) {
+                            failed();
+                        }
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    if (measured) {
+                        failed();
+                    }
+                    pending.decrementAndGet();
+                }
+            });
+        }
+
+        synchronized void succeeded(long latency, int points) {
+            if (!reported) {
+                latencies.record(latency);
+                this.points += points;
+            }
+        }
+
+        synchronized void failed() {
+            if (!reported) {
+                errors++;
+            }
+        }
+
+        /**
+         * The measured requests which did not complete yet are counted as errors.
+         */
+        synchronized Warp10WorkloadReport.Operation report(Duration duration) {
+            reported = true;
+            long unfinished = scheduled - latencies.getCount() - errors;
+            return new Warp10WorkloadReport.Operation(name, rate, scheduled, errors + unfinished, points, duration, latencies);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.clevercloud.testcontainers.warp10;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of a {@link Warp10Workload} run, per operation. Warmup operations are not included.
+ */
+public class Warp10WorkloadReport {
+    private final Duration duration;
+    private final Map<String, Operation> operations;
+
+    Warp10WorkloadReport(Duration duration, Map<String, Operation> operations) {
+        this.duration = duration;
+        this.operations = Collections.unmodifiableMap(new LinkedHashMap<>(operations));
+    }
+
+    /**
+     * @return the measured duration, warmup excluded
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the operations by name: "update", "query", then the custom exec operations
+     */
+    public Map<String, Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @param name name of the operation.
+     * @return the operation, or null if the workload didn't run it
+     */
+    public Operation getOperation(String name) {
+        return operations.get(name);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Warp10 workload over ").append(duration);
+        operations.values().forEach(operation -> sb.append("\n  ").append(operation));
+        return sb.toString();
+    }
+
+    /**
+     * Counters and latencies of an operation. Latencies are measured from the time the operation was scheduled, not
+     * from the time it was sent, so a slow Warp10 or a saturated client shows up in the latencies.
+     */
+    public static class Operation {
+        private final String name;
+        private final double targetRate;
+        private final long scheduled;
+        private final long errors;
+        private final long points;
+        private final Duration duration;
+        private final Warp10LatencyHistogram latencies;
+
+        Operation(String name, double targetRate, long scheduled, long errors, long points, Duration duration, Warp10LatencyHistogram latencies) {
+            this.name = name;
+            this.targetRate = targetRate;
+            this.scheduled = scheduled;
+            this.errors = errors;
+            this.points = points;
+            this.duration = duration;
+            this.latencies = latencies;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the rate the operation was scheduled at, per second
+         */
+        public double getTargetRate() {
+            return targetRate;
+        }
+
+        /**
+         * @return the number of operations scheduled, including the ones which failed or did not complete
+         */
+        public long getScheduled() {
+            return scheduled;
+        }
+
+        public long getSucceeded() {
+            return latencies.getCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return the number of points written by the succeeded operations, 0 for queries
+         */
+        public long getPoints() {
+            return points;
+        }
+
+        /**
+         * @return the succeeded operations per second
+         */
+        public double getThroughput() {
+            return duration.isZero() ? 0.0 : getSucceeded() / (duration.toNanos() / 1e9);
+        }
+
+        /**
+         * @return the written points per second
+         */
+        public double getPointsPerSecond() {
+            return duration.isZero() ? 0.0 : points / (duration.toNanos() / 1e9);
+        }
+
+        /**
+         * @return the latencies of the succeeded operations
+         */
+        public Warp10LatencyHistogram getLatencies() {
+            return latencies;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f/s (target %.1f/s), %d errors, %s",
+                name, getThroughput(), targetRate, errors, latencies);
+        }
+    }
+}
@@ -1,14 +1,34 @@
 package com.clevercloud.testcontainers.warp10;
 
+import com.clevercloud.testcontainers.warp10.Warp10GTS.Type;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.junit.Test;
+import org.testcontainers.DockerClientFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 public class Warp10ContainerTest {
@@ -35,6 +55,70 @@ public class Warp10ContainerTest {
       }
    }
 
+   @Test
+   public void warp10ReadinessReport() {
+      try (Warp10Container container = new Warp10Container(Warp10Version).withReadinessPollInterval(Duration.ofMillis(50))) {
+         container.start();
+
+         Warp10WaitStrategy.Report report = container.getReadinessReport();
+         assertNotNull(report);
+         assertTrue(report.getProbes() > 0);
+         assertTrue(report.getTotal().compareTo(report.getProbe()) >= 0);
+      }
+   }
+
+   @Test
+   public void warp10StartupReport() {
+      List<Warp10StartupReport.Phase> phases = new ArrayList<>();
+      Warp10StartupMetrics metrics = new Warp10StartupMetrics();
+      try (Warp10Container container = new Warp10Container(Warp10Version)
+         .withStartupListener(metrics)
+         .withStartupListener(new Warp10StartupListener() {
+            @Override
+            public void onPhase(Warp10StartupReport.Phase phase, Duration duration) {
+               phases.add(phase);
+            }
+
+            @Override
+            public void onStarted(Warp10StartupReport report) {
+            }
+         })) {
+         container.start();
+
+         Warp10StartupReport report = container.getStartupReport();
+         assertNotNull(report);
+         assertNotNull(report.getPhase(Warp10StartupReport.Phase.WAIT));
+         assertNotNull(report.getPhase(Warp10StartupReport.Phase.TOKEN_GENERATION));
+         assertEquals(new ArrayList<>(report.getPhases().keySet()), phases);
+         assertEquals(1, metrics.getReports().size());
+         assertEquals(report.getTotal(), metrics.totalPercentile(50));
+         assertTrue(Warp10StartupMetrics.global().getReports().contains(report));
+      }
+   }
+
+   @Test
+   public void warp10ParallelStart() throws Exception {
+      try (Warp10Container async = new Warp10Container(Warp10Version)) {
+         assertSame(async, async.startAsync().get());
+         assertNotNull(async.getReadToken());
+      }
+
+      Warp10ContainerGroup group = Warp10ContainerGroup.of(
+         new Warp10Container(Warp10Version),
+         new Warp10Container(Warp10Version, new File("src/test/resources/macros"))
+      );
+      try {
+         group.start();
+
+         for (Warp10Container container : group.getContainers()) {
+            assertTrue(container.isRunning());
+            assertNotNull(container.getWriteToken());
+         }
+      } finally {
+         group.stop();
+      }
+   }
+
    @Test
    public void warp10CryptoKeysExtraction() {
       try (Warp10Container container = new Warp10Container(Warp10Version)) {
@@ -86,6 +170,75 @@ public class Warp10ContainerTest {
       }
    }
 
+   @Test
+   public void warp10InJvmTokens() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version).withInJvmTokenGeneration()) {
+         container.start();
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         Response getGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, container.getReadToken()), null);
+         assertEquals(200, getGTS.code());
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      }
+   }
+
+   @Test
+   public void warp10TokenGen() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version).withTokenGen()) {
+         container.start();
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         Response getGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, container.getReadToken()), null);
+         assertEquals(200, getGTS.code());
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      }
+   }
+
+   @Test
+   public void warp10InJvmTokensMatchTokenGen() throws IOException {
+      long issuance = System.currentTimeMillis();
+      Warp10TokenSpec spec = Warp10TokenSpec.write()
+         .withId("Compared")
+         .withApplication("compared.app")
+         .withOwner(UUID.randomUUID())
+         .withLabel("tenant", "compared")
+         .withCapability("limit", "1000")
+         .withIssuance(issuance)
+         .withExpiry(issuance + Duration.ofDays(1).toMillis());
+      try (Warp10Container container = new Warp10Container(Warp10Version).withTokenGen().withTokens(spec)) {
+         container.start();
+
+         // Same spec and keys, decoded the same by Warp10
+         assertEquals(tokenInfo(container, container.getToken("Compared")), tokenInfo(container, container.mintToken(spec)));
+      }
+   }
+
+   @Test
+   public void warp10ProvidedCryptoKeys() throws IOException {
+      Warp10CryptoKeys cryptoKeys = Warp10CryptoKeys.generate();
+      Warp10TokenEncoder encoder = new Warp10TokenEncoder(cryptoKeys);
+      UUID owner = UUID.randomUUID();
+      String writeToken = encoder.encode(Warp10TokenSpec.write().withOwner(owner));
+      String readToken = encoder.encode(Warp10TokenSpec.read().withOwner(owner));
+
+      try (Warp10Container container = new Warp10Container(Warp10Version).withCryptoKeys(cryptoKeys)) {
+         container.start();
+
+         assertEquals(cryptoKeys, container.getCryptoKeys());
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, writeToken);
+         assertEquals(200, putGTS.code());
+
+         Response getGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, readToken), null);
+         assertEquals(200, getGTS.code());
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      }
+   }
+
    @Test
    public void warp10WithMacros() throws IOException {
       try (Warp10Container container = new Warp10Container(Warp10Version, new File("src/test/resources/macros"))) {
@@ -119,6 +272,352 @@ public class Warp10ContainerTest {
 
    }
 
+   @Test
+   public void warp10HotLoadMacros() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version).withMacroRefresh(Duration.ofSeconds(1))) {
+         container.start();
+
+         container.loadMacros(new File("src/test/resources/macros"));
+         container.replaceMacro("me/answer", "<% 42 %>");
+
+         Response getAnswer = warp10Request(container, Warp10FetchAPI, "@me/answer", null);
+         assertEquals(200, getAnswer.code());
+         assertEquals("[42]", getAnswer.body().string().trim());
+
+         container.replaceMacro("me/answer", "<% 43 %>");
+
+         getAnswer = warp10Request(container, Warp10FetchAPI, "@me/answer", null);
+         assertEquals("[43]", getAnswer.body().string().trim());
+      }
+   }
+
+   @Test
+   public void warp10SharedTenants() throws IOException {
+      Warp10Container container = Warp10Container.shared(Warp10Version);
+      assertSame(container, Warp10Container.shared(Warp10Version));
+
+      List<Warp10Tenant> tenants = container.newTenants(1000);
+      Warp10Tenant writer = tenants.get(0);
+      Warp10Tenant other = tenants.get(1);
+
+      Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, writer.getWriteToken());
+      assertEquals(200, putGTS.code());
+
+      Response getGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, writer.getReadToken()), null);
+      assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+
+      Response getOtherGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, other.getReadToken()), null);
+      assertEquals(200, getOtherGTS.code());
+      assertEquals(0, Integer.parseInt(getOtherGTS.header(Warp10FetchedHeader)));
+
+      // Would reset the data of the tenants of other tests
+      assertThrows(IllegalStateException.class, container::reset);
+   }
+
+   @Test
+   public void warp10CustomTokens() throws IOException, InterruptedException {
+      Warp10TokenSpec limited = Warp10TokenSpec.read().withId("Limited").withCapability("limit", "100");
+      try (Warp10Container container = new Warp10Container(Warp10Version).withTokenGen().withTokens(limited)) {
+         container.start();
+
+         assertNotNull(container.getReadToken());
+         assertNotNull(container.getToken("limited"));
+
+         List<Warp10TokenSpec> specs = new ArrayList<>();
+         for (int i = 0; i < 100; i++) {
+            specs.add(Warp10TokenSpec.write().withId("Writer" + i).withLabel("writer", String.valueOf(i)));
+         }
+         Warp10Tokens tokens = container.generateTokens(specs);
+
+         assertEquals(100, tokens.getTokens().size());
+         assertEquals(tokens.getToken("Writer42").getToken(), container.getToken("Writer42"));
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getToken("Writer42"));
+         assertEquals(200, putGTS.code());
+      }
+   }
+
+   @Test
+   public void warp10BatchedIngestion() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version)) {
+         container.start();
+
+         Warp10Series series = Warp10Series.of("ingest", Map.of("run", "batched"));
+         Warp10Ingester ingester = container.client().ingester().withBatchSize(64 * 1024);
+         try (ingester) {
+            for (long ts = 1; ts <= 100000; ts++) {
+               ingester.add(series, ts, ts * 0.5);
+            }
+         }
+         assertEquals(100000, ingester.getPoints());
+         assertTrue(ingester.getRequests() > 1);
+
+         try (Warp10SeriesReader reader = container.client().exec(
+            String.format("[ '%s' 'ingest' {} 100001 100000 ] FETCH", container.getReadToken()))) {
+            List<Warp10GTS> fetched = reader.readAll();
+            assertEquals(1, fetched.size());
+            assertEquals(100000, fetched.get(0).size());
+         }
+
+         try (Warp10SeriesReader reader = container.client().fetch("ingest{run=batched}", 100001, 100000)) {
+            long points = 0;
+            while (reader.nextSeries()) {
+               while (reader.nextPoint()) {
+                  assertEquals(reader.getTimestamp() * 0.5, reader.getDouble(), 0.0);
+                  points++;
+               }
+            }
+            assertEquals(100000, points);
+         }
+      }
+   }
+
+   @Test
+   public void warp10StreamingIngestion() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version)) {
+         container.start();
+
+         Warp10Series series = Warp10Series.of("stream");
+         Warp10StreamWriter writer = container.client().streamWriter().withFrameSize(16 * 1024);
+         try (writer) {
+            for (long ts = 1; ts <= 100000; ts++) {
+               writer.add(series, ts, ts);
+            }
+         }
+
+         Warp10StreamWriter.Stats stats = writer.getStats();
+         assertEquals(100000, stats.getPointsAcked());
+         assertEquals(stats.getFramesSent(), stats.getFramesAcked());
+         assertTrue(stats.getAckedPointsPerSecond() > 0);
+
+         try (Warp10SeriesReader reader = container.client().fetch("stream{}", 100001, 100000)) {
+            assertEquals(100000, reader.readAll().get(0).size());
+         }
+      }
+   }
+
+   @Test
+   public void warp10InMemoryStorage() throws IOException, InterruptedException {
+      // The last storage setting wins
+      try (Warp10Container container = new Warp10Container(Warp10Version).withInMemoryStorage().withInMemoryStorage(3, Duration.ofDays(1))) {
+         container.start();
+         String storage = container.execInContainer("cat", "/config.extra/99-testcontainers-storage.conf.template").getStdout();
+         assertTrue(storage, storage.contains("in.memory.chunk.count = 3"));
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         Response getGTS = warp10Request(container, Warp10FetchAPI, String.format("[ '%s' 'test' {} 1 1 ] FETCH", container.getReadToken()), null);
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      }
+   }
+
+   @Test
+   public void warp10TmpfsData() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version).withTmpfsData("256m")) {
+         container.start();
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         Response getGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, container.getReadToken()), null);
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      }
+   }
+
+   @Test
+   public void warp10Dataset() throws IOException {
+      Path plain = Files.createTempFile("dataset", ".gts");
+      Path compressed = Files.createTempFile("dataset", ".gts.gz");
+      StringBuilder gts = new StringBuilder();
+      for (int ts = 1; ts <= 1000; ts++) {
+         gts.append(ts).append("// dataset{} ").append(ts).append('\n');
+      }
+      Files.writeString(plain, gts);
+      try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(compressed)), StandardCharsets.UTF_8)) {
+         writer.write(gts.toString().replace("dataset{}", "compressed{}"));
+      }
+
+      List<Warp10DatasetProgress> progress = new ArrayList<>();
+      try (Warp10Container container = new Warp10Container(Warp10Version)
+         .withDataset(plain, compressed)
+         .withStartupListener(new Warp10StartupListener() {
+            @Override
+            public void onDatasetProgress(Warp10DatasetProgress datasetProgress) {
+               progress.add(datasetProgress);
+            }
+
+            @Override
+            public void onStarted(Warp10StartupReport report) {
+            }
+         })) {
+         container.start();
+
+         assertEquals(2, progress.size());
+         assertNotNull(container.getStartupReport().getPhase(Warp10StartupReport.Phase.DATASETS));
+         try (Warp10SeriesReader reader = container.client().exec(
+            String.format("[ '%s' '~(dataset|compressed)' {} 1001 1000 ] FETCH", container.getReadToken()))) {
+            List<Warp10GTS> series = reader.readAll();
+            assertEquals(2, series.size());
+            assertEquals(1000, series.get(0).size());
+            assertEquals(1000, series.get(1).size());
+         }
+      } finally {
+         Files.deleteIfExists(plain);
+         Files.deleteIfExists(compressed);
+      }
+   }
+
+   @Test
+   public void warp10Checkpoint() throws IOException {
+      String checkpoint = "test-" + UUID.randomUUID();
+      String readToken;
+      Warp10CryptoKeys keys;
+      try (Warp10Container container = new Warp10Container(Warp10Version).withCheckpoints()) {
+         container.start();
+         readToken = container.getReadToken();
+         keys = container.getCryptoKeys();
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         container.checkpoint(checkpoint);
+      }
+
+      assertTrue(Warp10Container.hasCheckpoint(checkpoint));
+      try (Warp10Container restored = Warp10Container.fromCheckpoint(checkpoint)) {
+         restored.start();
+
+         // Minted again for the same owner, so that they don't expire with the checkpoint
+         assertNotEquals(readToken, restored.getReadToken());
+         assertNotNull(restored.getStartupReport().getPhase(Warp10StartupReport.Phase.TOKEN_GENERATION));
+         assertEquals(keys.getAesTokenKey(), restored.getCryptoKeys().getAesTokenKey());
+
+         Response getGTS = warp10Request(restored, Warp10FetchAPI, String.format(Warp10FetchGTS, restored.getReadToken()), null);
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      } finally {
+         DockerClientFactory.instance().client().removeImageCmd("testcontainers-warp10-checkpoint:" + checkpoint).exec();
+      }
+   }
+
+   @Test
+   public void warp10Reset() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version).withResettableData()) {
+         container.start();
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         container.reset();
+
+         Response getGTS = warp10Request(container, Warp10FetchAPI, String.format(Warp10FetchGTS, container.getReadToken()), null);
+         assertEquals(200, getGTS.code());
+         assertEquals(0, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+
+         putGTS = warp10Request(container, Warp10UpdateAPI, Warp10GTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         // Restarted, the supervisor wraps the original entrypoint only
+         container.stop();
+         container.start();
+         String command = String.join(" ", container.getContainerInfo().getConfig().getCmd());
+         assertFalse(command, command.contains("warp10-supervisor"));
+         container.reset();
+      }
+   }
+
+   @Test
+   public void warp10Workload() throws InterruptedException {
+      try (Warp10Container container = new Warp10Container(Warp10Version)) {
+         container.start();
+
+         Warp10WorkloadReport report = container.client().workload()
+            .withClasses(2)
+            .withLabel("host", 5)
+            .withValueTypes(Type.DOUBLE, Type.LONG)
+            .withPointRate(1000, 100)
+            .withQueryRate(10, Duration.ofMinutes(1))
+            .withWarmup(Duration.ofSeconds(1))
+            .withDuration(Duration.ofSeconds(2))
+            .run();
+
+         Warp10WorkloadReport.Operation update = report.getOperation("update");
+         assertEquals(0, update.getErrors());
+         assertEquals(20, update.getScheduled());
+         assertEquals(2000, update.getPoints());
+         assertEquals(0, report.getOperation("query").getErrors());
+         assertTrue(report.getOperation("query").getLatencies().getCount() > 0);
+      }
+   }
+
+   @Test
+   public void warp10ExecProfiler() throws IOException {
+      try (Warp10Container container = new Warp10Container(Warp10Version, new File("src/test/resources/macros"), new File("src/test/resources/conf.d"))) {
+         container.start();
+
+         Response putGTS = warp10Request(container, Warp10UpdateAPI, Warp10MacroGTS, container.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         Warp10ExecProfiler profiler = container.profiler();
+         String arguments = String.format("[ '%s' 'test' {} 40 NOW 10 ]", container.getReadToken());
+         for (int i = 0; i < 3; i++) {
+            Warp10ExecProfiler.Result result = profiler.macro("me/testlimit", arguments);
+            assertEquals(1, result.getFetched());
+         }
+
+         Warp10ExecStats stats = profiler.getStats("@me/testlimit");
+         assertEquals(3, stats.getCalls());
+         assertEquals(0, stats.getErrors());
+         assertEquals(3, stats.getFetched());
+         assertTrue(stats.getMaxOps() > 0);
+         assertTrue(stats.getElapsed().getMax().toNanos() > 0);
+
+         profiler.withFunctionProfiling(true).macro("me/testlimit", arguments);
+         assertTrue(stats.getFunctions().containsKey("FETCH"));
+      }
+   }
+
+   @Test
+   public void warp10Topology() throws IOException {
+      Warp10Topology topology = new Warp10Topology(2, Warp10Version);
+      try {
+         topology.start();
+         Warp10Container first = topology.getNode(0);
+         Warp10Container second = topology.getNode(1);
+
+         Response putGTS = warp10Request(first, Warp10UpdateAPI, Warp10GTS, first.getWriteToken());
+         assertEquals(200, putGTS.code());
+
+         Response getGTS = warp10Request(first, Warp10FetchAPI, String.format(Warp10FetchGTS, first.getReadToken()), null);
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+
+         // Same crypto keys and storage on all the nodes
+         getGTS = warp10Request(second, Warp10FetchAPI, String.format(Warp10FetchGTS, first.getReadToken()), null);
+         assertEquals(200, getGTS.code());
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+
+         // Started again, on a new network and a new FoundationDB
+         topology.stop();
+         topology.start();
+         putGTS = warp10Request(second, Warp10UpdateAPI, Warp10GTS, first.getWriteToken());
+         assertEquals(200, putGTS.code());
+         getGTS = warp10Request(first, Warp10FetchAPI, String.format(Warp10FetchGTS, first.getReadToken()), null);
+         assertEquals(1, Integer.parseInt(getGTS.header(Warp10FetchedHeader)));
+      } finally {
+         topology.stop();
+      }
+   }
+
+   private JsonNode tokenInfo(Warp10Container container, String token) throws IOException {
+      try (Response response = warp10Request(container, Warp10FetchAPI, "'" + token + "' TOKENINFO", null)) {
+         assertEquals(200, response.code());
+         JsonNode info = new ObjectMapper().readTree(response.body().string()).get(0);
+         // Derived from the encrypted bytes rather than from the content
+         ((ObjectNode) info).remove("ident");
+         return info;
+      }
+   }
+
    private Response warp10Request(Warp10Container container, String path, String body, String auth) throws IOException {
       URL postGTS = new URL("http", container.getHTTPHost(), container.getHTTPPort(), path);
 
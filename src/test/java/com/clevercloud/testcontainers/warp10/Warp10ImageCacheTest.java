@@ -0,0 +1,51 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class Warp10ImageCacheTest {
+   private static final String BaseImage = "warp10io/warp10:3.4.1-ubuntu-ci";
+   private static final String BaseImageId = "sha256:0b8e6a0d4c3b3f1c5a9e2f7d6c8b1a4e3d2c1b0a9f8e7d6c5b4a3f2e1d0c9b8a";
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void cacheKeyIsStable() {
+      File macros = new File("src/test/resources/macros");
+      File config = new File("src/test/resources/conf.d");
+
+      assertEquals(Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, config), Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, config));
+      assertNotEquals(Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, config), Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, null));
+      assertNotEquals(Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, null), Warp10ImageCache.cacheKey("warp10io/warp10:3.4.0-ubuntu-ci", BaseImageId, macros, null));
+   }
+
+   @Test
+   public void cacheKeyChangesWithBaseImageId() {
+      File macros = new File("src/test/resources/macros");
+
+      assertNotEquals(Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, null),
+         Warp10ImageCache.cacheKey(BaseImage, "sha256:1c9f7b1e5d4c4a2d6bae3a8e7d9c2b5f4e3d2c1b0a9f8e7d6c5b4a3f2e1d0c9b", macros, null));
+   }
+
+   @Test
+   public void cacheKeyChangesWithMacroContent() throws IOException {
+      File macros = temporaryFolder.newFolder("macros");
+      File macro = new File(macros, "me/test.mc2");
+      macro.getParentFile().mkdirs();
+      Files.writeString(macro.toPath(), "<% 42 %>");
+      String before = Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, null);
+
+      Files.writeString(macro.toPath(), "<% 43 %>");
+
+      assertNotEquals(before, Warp10ImageCache.cacheKey(BaseImage, BaseImageId, macros, null));
+   }
+}
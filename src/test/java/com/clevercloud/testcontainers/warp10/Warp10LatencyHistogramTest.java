@@ -0,0 +1,46 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class Warp10LatencyHistogramTest {
+   @Test
+   public void bucketsCoverTheWholeRange() {
+      Random random = new Random(42);
+      for (int i = 0; i < 100_000; i++) {
+         long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+         int index = Warp10LatencyHistogram.index(value);
+         assertTrue(Warp10LatencyHistogram.lowestValue(index) <= value);
+         assertTrue(Warp10LatencyHistogram.highestValue(index) >= value);
+         // Relative error bound of the log-linear buckets
+         assertTrue(Warp10LatencyHistogram.highestValue(index) - Warp10LatencyHistogram.lowestValue(index) <= value / 64);
+      }
+      assertEquals(Long.MAX_VALUE, Warp10LatencyHistogram.highestValue(Warp10LatencyHistogram.index(Long.MAX_VALUE)));
+   }
+
+   @Test
+   public void percentiles() {
+      Warp10LatencyHistogram histogram = new Warp10LatencyHistogram();
+      for (long millis = 1; millis <= 1000; millis++) {
+         histogram.record(Duration.ofMillis(millis).toNanos());
+      }
+
+      assertEquals(1000, histogram.getCount());
+      assertEquals(Duration.ofMillis(1), histogram.getMin());
+      assertEquals(Duration.ofMillis(1000), histogram.getMax());
+      assertEquals(Duration.ofMillis(1000), histogram.getPercentile(100));
+      assertWithin(Duration.ofMillis(500), histogram.getPercentile(50));
+      assertWithin(Duration.ofMillis(990), histogram.getPercentile(99));
+      assertWithin(Duration.ofNanos(500_500_000), histogram.getMean());
+   }
+
+   private static void assertWithin(Duration expected, Duration actual) {
+      long error = Math.abs(actual.toNanos() - expected.toNanos());
+      assertTrue(expected + " != " + actual, error <= expected.toNanos() / 60);
+   }
+}
@@ -0,0 +1,146 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class Warp10SeriesReaderTest {
+   private static final String EXEC_RESPONSE = "[42,{\"key\":[" +
+      "{\"c\":\"temp\",\"l\":{\"room\":\"kitchen\"},\"a\":{},\"la\":0,\"v\":[[1,20.5],[2,48.0,-4.5,21],[3,10,NaN]]}" +
+      "]},{\"c\":\"empty\",\"l\":{},\"a\":{},\"la\":0,\"v\":[]}," +
+      "{\"c\":\"mixed\",\"l\":{},\"a\":{\"unit\":\"C\"},\"la\":0,\"v\":[[1,48.0,-4.5,100,\"it's\"],[2,\"ok\"]]},\"c\"]";
+
+   private static final String FETCH_RESPONSE = "1// temp{room=kitchen} 20.5\n" +
+      "=2/48.0:-4.5/ 21\n" +
+      "=3//10 -0.125\n" +
+      "\n" +
+      "1// %C3%A9t%C3%A9{a%3Db=c%2Cd}{unit=C} 'it%27s'\n" +
+      "1// flags{} T\r\n" +
+      "=2// F\n";
+
+   @Test
+   public void readsExecStack() throws IOException {
+      try (Warp10SeriesReader reader = Warp10SeriesReader.ofExec(stream(EXEC_RESPONSE))) {
+         List<Warp10GTS> series = reader.readAll();
+         assertEquals(3, series.size());
+
+         Warp10GTS temp = series.get(0);
+         assertEquals("temp", temp.getClassName());
+         assertEquals(Map.of("room", "kitchen"), temp.getLabels());
+         assertEquals(Warp10GTS.Type.DOUBLE, temp.getType());
+         assertArrayEquals(new long[]{1, 2, 3}, temp.getTimestamps());
+         assertArrayEquals(new double[]{20.5, 21.0, Double.NaN}, temp.getDoubleValues(), 0.0);
+         assertArrayEquals(new double[]{Double.NaN, 48.0, Double.NaN}, temp.getLatitudes(), 0.0);
+         assertArrayEquals(new long[]{Warp10GTS.NO_ELEVATION, Warp10GTS.NO_ELEVATION, 10}, temp.getElevations());
+
+         assertEquals(0, series.get(1).size());
+         assertNull(series.get(1).getType());
+
+         Warp10GTS mixed = series.get(2);
+         assertEquals(Map.of("unit", "C"), mixed.getAttributes());
+         assertArrayEquals(new String[]{"it's", "ok"}, mixed.getStringValues());
+         assertEquals(100L, mixed.getElevations()[0]);
+      }
+   }
+
+   @Test
+   public void readsFetchText() throws IOException {
+      try (Warp10SeriesReader reader = Warp10SeriesReader.ofFetch(stream(FETCH_RESPONSE))) {
+         List<Warp10GTS> series = reader.readAll();
+         assertEquals(3, series.size());
+
+         Warp10GTS temp = series.get(0);
+         assertEquals(Map.of("room", "kitchen"), temp.getLabels());
+         assertEquals(Warp10GTS.Type.DOUBLE, temp.getType());
+         assertArrayEquals(new double[]{20.5, 21.0, -0.125}, temp.getDoubleValues(), 0.0);
+         assertArrayEquals(new double[]{Double.NaN, -4.5, Double.NaN}, temp.getLongitudes(), 0.0);
+         assertEquals(10L, temp.getElevations()[2]);
+
+         Warp10GTS encoded = series.get(1);
+         assertEquals("\u00e9t\u00e9", encoded.getClassName());
+         assertEquals(Map.of("a=b", "c,d"), encoded.getLabels());
+         assertEquals(Map.of("unit", "C"), encoded.getAttributes());
+         assertArrayEquals(new String[]{"it's"}, encoded.getStringValues());
+
+         assertArrayEquals(new boolean[]{true, false}, series.get(2).getBooleanValues());
+      }
+   }
+
+   @Test
+   public void skipsPointsOfUnreadSeries() throws IOException {
+      try (Warp10SeriesReader reader = Warp10SeriesReader.ofFetch(stream(FETCH_RESPONSE))) {
+         assertTrue(reader.nextSeries());
+         assertTrue(reader.nextPoint());
+         assertTrue(reader.nextSeries());
+         assertEquals("\u00e9t\u00e9", reader.getClassName());
+         assertTrue(reader.nextSeries());
+         assertEquals("flags", reader.getClassName());
+         assertFalse(reader.nextSeries());
+      }
+   }
+
+   @Test
+   public void parsesDoublesExactly() throws IOException {
+      String[] values = {"0.1", "123456.789", "-1.7976931348623157E308", "4.9E-324", "0.30000000000000004", "1234567890.12345678"};
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < values.length; i++) {
+         sb.append(i == 0 ? "0// d{} " : "=" + i + "// ").append(values[i]).append('\n');
+      }
+      try (Warp10SeriesReader reader = Warp10SeriesReader.ofFetch(stream(sb.toString()))) {
+         double[] parsed = reader.readAll().get(0).getDoubleValues();
+         for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.parseDouble(values[i]), parsed[i], 0.0);
+         }
+      }
+   }
+
+   @Test
+   public void streamsLargeResponsesPointByPoint() throws IOException {
+      int points = 1_000_000;
+      Enumeration<InputStream> lines = new Enumeration<>() {
+         private int next = 0;
+
+         @Override
+         public boolean hasMoreElements() {
+            return next < points;
+         }
+
+         @Override
+         public InputStream nextElement() {
+            int ts = next++;
+            return stream((ts == 0 ? "0// big{} " : "=" + ts + "// ") + ts + "\n");
+         }
+      };
+
+      long sum = 0L;
+      int count = 0;
+      try (Warp10SeriesReader reader = Warp10SeriesReader.ofFetch(new SequenceInputStream(lines))) {
+         while (reader.nextSeries()) {
+            while (reader.nextPoint()) {
+               assertEquals(Warp10GTS.Type.LONG, reader.getType());
+               sum += reader.getLong();
+               count++;
+            }
+         }
+      }
+      assertEquals(points, count);
+      assertEquals((long) points * (points - 1) / 2, sum);
+   }
+
+   private static InputStream stream(String content) {
+      return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+   }
+}
@@ -0,0 +1,114 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class Warp10TokenEncoderTest {
+   private static final Warp10CryptoKeys CRYPTO_KEYS = new Warp10CryptoKeys(
+      "000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f",
+      "00112233445566778899aabbccddeeff",
+      "0f0e0d0c0b0a09080706050403020100"
+   );
+
+   @Test
+   public void aesWrapMatchesRfc3394() throws Exception {
+      // RFC 3394 section 4.6: wrap 128 bits of key data with a 256-bit KEK
+      Cipher aes = Cipher.getInstance("AES/ECB/NoPadding");
+      aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Warp10TokenEncoder.fromHex(CRYPTO_KEYS.getAesTokenKey()), "AES"));
+
+      byte[] wrapped = Warp10TokenEncoder.aesWrap(aes, Warp10TokenEncoder.fromHex("00112233445566778899aabbccddeeff"));
+
+      assertArrayEquals(Warp10TokenEncoder.fromHex("64e8c3f9ce0f5ba263e9777905818a2a93c8191e7d6e8ae7"), wrapped);
+   }
+
+   @Test
+   public void sipHashMatchesReferenceVector() {
+      byte[] data = new byte[15];
+      for (int i = 0; i < data.length; i++) {
+         data[i] = (byte) i;
+      }
+
+      assertEquals(0x726fdb47dd0e0e31L, Warp10TokenEncoder.sipHash24(0x0706050403020100L, 0x0f0e0d0c0b0a0908L, new byte[0]));
+      assertEquals(0xa129ca6149be45e5L, Warp10TokenEncoder.sipHash24(0x0706050403020100L, 0x0f0e0d0c0b0a0908L, data));
+   }
+
+   @Test
+   public void base64PreservesOrder() {
+      Random random = new Random(42);
+      byte[] previous = new byte[10];
+      String previousEncoded = Warp10TokenEncoder.encodeOrderPreservingBase64(previous);
+      for (int i = 0; i < 1000; i++) {
+         byte[] current = previous.clone();
+         int index = random.nextInt(current.length);
+         if (current[index] == (byte) 0xFF) {
+            continue;
+         }
+         current[index]++;
+         String encoded = Warp10TokenEncoder.encodeOrderPreservingBase64(current);
+         assertTrue(encoded.compareTo(previousEncoded) > 0);
+         previous = current;
+         previousEncoded = encoded;
+      }
+   }
+
+   @Test
+   public void mintsDistinctTokens() {
+      Warp10TokenEncoder encoder = new Warp10TokenEncoder(CRYPTO_KEYS);
+      Set<String> tokens = new HashSet<>();
+      for (int i = 0; i < 10000; i++) {
+         String token = encoder.encode(Warp10TokenSpec.write().withOwner(UUID.randomUUID()).withIssuance(0L));
+         assertTrue(token.matches("[.0-9A-Z_a-z]+"));
+         tokens.add(token);
+      }
+      assertEquals(10000, tokens.size());
+   }
+
+   @Test
+   public void encodingIsDeterministic() {
+      Warp10TokenEncoder encoder = new Warp10TokenEncoder(CRYPTO_KEYS);
+      UUID owner = UUID.randomUUID();
+      Warp10TokenSpec spec = Warp10TokenSpec.read()
+         .withOwner(owner)
+         .withLabel("env", "test")
+         .withAttribute(".cap:limit", "1000")
+         .withIssuance(0L)
+         .withExpiry(1000L);
+
+      assertEquals(encoder.encode(spec), encoder.encode(spec));
+      assertNotEquals(encoder.encode(spec), encoder.encode(Warp10TokenSpec.write().withOwner(owner).withIssuance(0L).withExpiry(1000L)));
+   }
+
+   @Test
+   public void specRendersAsTokenGenCall() {
+      UUID owner = UUID.fromString("2c3d6a12-8a7e-4b5c-9f1e-0d2b3c4d5e6f");
+      String script = Warp10TokenSpec.write()
+         .withId("It's")
+         .withOwner(owner)
+         .withCapability("limits", "")
+         .withIssuance(0L)
+         .withExpiry(1000L)
+         .toWarpScript(0L);
+
+      assertTrue(script.contains("'id' 'It%27s'"));
+      assertTrue(script.contains("'producer' '" + owner + "'"));
+      assertTrue(script.contains("'attributes' { '.cap:limits' '' }"));
+      assertTrue(script.contains("'expiry' 1000"));
+      assertTrue(script.endsWith("TOKENGEN\n"));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsInvalidKeys() {
+      new Warp10TokenEncoder(new Warp10CryptoKeys("00", "00", "00"));
+   }
+}
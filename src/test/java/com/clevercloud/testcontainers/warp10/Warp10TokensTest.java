@@ -0,0 +1,43 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class Warp10TokensTest {
+   @Test
+   public void tokensByIdIgnoringCase() {
+      Warp10Tokens tokens = new Warp10Tokens(List.of(token("ReadToken", "r"), token("WriteToken", "w"), token("Limited", "l")));
+
+      assertEquals("r", tokens.getReadToken().getToken());
+      assertEquals("w", tokens.getWriteToken().getToken());
+      assertEquals("l", tokens.getToken("LIMITED").getToken());
+   }
+
+   @Test
+   public void duplicateIds() {
+      assertThrows(IllegalArgumentException.class, () -> new Warp10Tokens(List.of(token("ReadToken", "r"), token("readtoken", "other"))));
+
+      Warp10Tokens tokens = new Warp10Tokens(List.of(token("ReadToken", "r"), token("WriteToken", "w")));
+      assertThrows(IllegalArgumentException.class, () -> tokens.with(List.of(token("WRITETOKEN", "other"))));
+   }
+
+   @Test
+   public void defaultIds() {
+      assertTrue(Warp10Tokens.isDefaultId("readtoken"));
+      assertTrue(Warp10Tokens.isDefaultId("WriteToken"));
+      assertFalse(Warp10Tokens.isDefaultId("Limited"));
+   }
+
+   private static TokenInfo token(String id, String token) {
+      TokenInfo info = new TokenInfo();
+      info.setId(id);
+      info.setToken(token);
+      return info;
+   }
+}
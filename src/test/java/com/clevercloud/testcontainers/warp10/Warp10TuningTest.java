@@ -0,0 +1,83 @@
+package com.clevercloud.testcontainers.warp10;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class Warp10TuningTest {
+   private static final long GIGABYTE = 1024L * 1024 * 1024;
+
+   @Test
+   public void parseSize() {
+      assertEquals(512L, Warp10Tuning.parseSize("512"));
+      assertEquals(64L * 1024, Warp10Tuning.parseSize("64k"));
+      assertEquals(512L * 1024 * 1024, Warp10Tuning.parseSize("512m"));
+      assertEquals(2 * GIGABYTE, Warp10Tuning.parseSize("2G"));
+      assertEquals(3 * 1024 * GIGABYTE, Warp10Tuning.parseSize("3t"));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void invalidSize() {
+      Warp10Tuning.parseSize("2 GB");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void oversizedSize() {
+      Warp10Tuning.parseSize("16777216t");
+   }
+
+   @Test
+   public void rendersConfigAndEnvironment() {
+      Warp10Tuning tuning = Warp10Tuning.create()
+         .withHeap("1g", "2g")
+         .withGc(Warp10Tuning.Gc.PARALLEL)
+         .withLevelDbCacheSize("256m")
+         .withLimit(Warp10Tuning.Limit.OPS, 100_000, 1_000_000)
+         .withHttpThreads(2, 4, 32);
+
+      List<String> warnings = tuning.validate(8 * GIGABYTE);
+      assertEquals(1, warnings.size());
+
+      Map<String, String> config = tuning.config();
+      assertEquals(String.valueOf(256L * 1024 * 1024), config.get("leveldb.cache.size"));
+      assertEquals("100000", config.get("warpscript.maxops"));
+      assertEquals("1000000", config.get("warpscript.maxops.hard"));
+      assertEquals("32", config.get("standalone.jetty.threadpool"));
+
+      Map<String, String> env = tuning.environment();
+      assertEquals("1024m", env.get("WARP10_HEAP"));
+      assertEquals("2048m", env.get("WARP10_HEAP_MAX"));
+      assertEquals("-XX:-UseG1GC -XX:+UseParallelGC", env.get("JAVA_OPTS"));
+   }
+
+   @Test
+   public void hardLimitsAreErrors() {
+      Warp10Tuning tuning = Warp10Tuning.create()
+         .withHeap("4g", "2g")
+         .withLimit(Warp10Tuning.Limit.LOOP, 10_000, 5_000)
+         .withHttpThreads(2, 4, 6);
+
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> tuning.validate(GIGABYTE));
+      assertTrue(e.getMessage().contains("initial heap"));
+      assertTrue(e.getMessage().contains("available memory"));
+      assertTrue(e.getMessage().contains("warpscript.maxloop"));
+      assertTrue(e.getMessage().contains("HTTP thread pool"));
+   }
+
+   @Test
+   public void softLimitsAreWarnings() {
+      List<String> warnings = Warp10Tuning.create()
+         .withHeap("1g", "3g")
+         .withLevelDbCacheSize("16m")
+         .validate(4 * GIGABYTE);
+
+      assertEquals(2, warnings.size());
+      assertTrue(warnings.get(0).contains("LevelDB cache"));
+      assertTrue(warnings.get(1).contains("heap growth"));
+   }
+}